@@ -0,0 +1,297 @@
+/*
+ * Copyright 2026 michael-simons.eu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.simplemeetup.app;
+
+import ac.simons.simplemeetup.domain.Event;
+import ac.simons.simplemeetup.support.PortMappingInitializer;
+import ac.simons.simplemeetup.support.PostgresHealthChecks;
+import ac.simons.simplemeetup.support.PropagateDockerRule;
+import ac.simons.simplemeetup.support.StatementBudget;
+import ac.simons.simplemeetup.support.StatementCounter;
+import com.palantir.docker.compose.DockerComposeRule;
+import com.palantir.docker.compose.connection.waiting.HealthChecks;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+import org.junit.rules.TestRule;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.sql.Date;
+import java.time.LocalDate;
+
+import static org.springframework.hateoas.MediaTypes.HAL_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Defines a budget of round trips to the database for each handler of the {@link EventsApi}. The requests go through
+ * the whole stack including serialization, so that lazy loading while rendering a response exceeds the budget as
+ * well. Each budget is measured with an empty cache.
+ *
+ * @author Michael J. Simons, 2026-10-18
+ */
+@RunWith(SpringRunner.class)
+@ActiveProfiles("it")
+@SpringBootTest(webEnvironment = WebEnvironment.MOCK)
+@AutoConfigureMockMvc
+@Import(StatementCounter.class)
+@ContextConfiguration(initializers = PortMappingInitializer.class)
+public class EventsApiIT {
+
+    private static DockerComposeRule docker = DockerComposeRule.builder()
+        .file("src/integrationTest/resources/docker-compose.yml")
+        .waitingForService("it-database", HealthChecks.toHaveAllPortsOpen())
+        .waitingForService("it-database", PostgresHealthChecks::canConnectTo)
+        .build();
+
+    @ClassRule
+    public static TestRule exposePortMappings = RuleChain.outerRule(docker)
+        .around(new PropagateDockerRule(docker));
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * The names of all events created by the tests.
+     */
+    private static final String CREATED_EVENTS
+        = "'Created Event', 'Imported Event 1', 'Imported Event 2', 'Full Event'";
+
+    private final LocalDate tomorrow = LocalDate.now().plusDays(1);
+
+    @Before
+    public void clearCachesAndCounter() {
+        this.cacheManager.getCacheNames().forEach(name -> this.cacheManager.getCache(name).clear());
+        StatementCounter.reset();
+    }
+
+    /**
+     * Restores the fixture, so that neither the budgets nor the results depend on the order of the tests.
+     */
+    @After
+    public void deleteCreatedEventsAndRegistrations() {
+        final String createdEventIds = "SELECT id FROM events WHERE name IN (" + CREATED_EVENTS + ")";
+        this.jdbcTemplate.update("DELETE FROM waitlist WHERE event_id IN (" + createdEventIds + ")");
+        this.jdbcTemplate.update("DELETE FROM registrations WHERE event_id IN (" + createdEventIds + ")");
+        this.jdbcTemplate.update("DELETE FROM events WHERE name IN (" + CREATED_EVENTS + ")");
+        this.jdbcTemplate.update("DELETE FROM registrations WHERE email <> 'michael.simons@innoq.com' "
+            + "AND event_id = (SELECT id FROM events WHERE name = 'Open Event')");
+        this.jdbcTemplate.update("UPDATE events SET number_of_registrations = 1 WHERE name = 'Open Event'");
+    }
+
+    @Test
+    public void events() throws Exception {
+        this.mockMvc
+            .perform(get("/api/events").param("size", "1").accept(HAL_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("_embedded.events").isNotEmpty());
+
+        StatementBudget.atMost().queries(1).verify();
+    }
+
+    @Test
+    public void eventsAfter() throws Exception {
+        this.mockMvc
+            .perform(get("/api/events").param("after", cursorOf("Closed Event")).accept(HAL_JSON))
+            .andExpect(status().isOk());
+
+        StatementBudget.atMost().queries(1).verify();
+    }
+
+    @Test
+    public void eventsBefore() throws Exception {
+        this.mockMvc
+            .perform(get("/api/events").param("before", cursorOf("Open Event")).accept(HAL_JSON))
+            .andExpect(status().isOk());
+
+        StatementBudget.atMost().queries(1).verify();
+    }
+
+    private String cursorOf(final String name) {
+        return EventCursor.of(new Event(this.tomorrow, name)).toString();
+    }
+
+    @Test
+    public void createNewEvent() throws Exception {
+        this.mockMvc
+            .perform(post("/api/events")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"heldOn\": \"" + this.tomorrow + "\", \"name\": \"Created Event\"}")
+                .accept(HAL_JSON))
+            .andExpect(status().isCreated());
+
+        // Reads the next block of ids
+        StatementBudget.atMost().queries(1).inserts(1).verify();
+    }
+
+    @Test
+    public void importEvents() throws Exception {
+        this.mockMvc
+            .perform(post("/api/events/import")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("["
+                    + "{\"heldOn\": \"" + this.tomorrow + "\", \"name\": \"Imported Event 1\"},"
+                    + "{\"heldOn\": \"" + this.tomorrow + "\", \"name\": \"Imported Event 2\"},"
+                    + "{\"heldOn\": \"" + this.tomorrow + "\", \"name\": \"Open Event\"}"
+                    + "]")
+                .accept(HAL_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("_embedded.results[2].status").value("duplicate"));
+
+        // Looks up the existing events and reserves a block of ids, the new ones are inserted in one batch
+        StatementBudget.atMost().queries(2).inserts(1).verify();
+    }
+
+    @Test
+    public void event() throws Exception {
+        this.mockMvc
+            .perform(get("/api/events/{heldOn}/{name}", this.tomorrow, "Open Event").accept(HAL_JSON))
+            .andExpect(status().isOk());
+
+        StatementBudget.atMost().queries(1).verify();
+    }
+
+    @Test
+    public void cachedEvent() throws Exception {
+        this.mockMvc
+            .perform(get("/api/events/{heldOn}/{name}", this.tomorrow, "Open Event").accept(HAL_JSON))
+            .andExpect(status().isOk());
+        StatementCounter.reset();
+
+        this.mockMvc
+            .perform(get("/api/events/{heldOn}/{name}", this.tomorrow, "Open Event").accept(HAL_JSON))
+            .andExpect(status().isOk());
+
+        StatementBudget.atMost().verify();
+    }
+
+    @Test
+    public void registrations() throws Exception {
+        this.mockMvc
+            .perform(get("/api/events/{heldOn}/{name}/registrations", this.tomorrow, "Open Event").accept(HAL_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("_embedded.registrations").isNotEmpty());
+
+        StatementBudget.atMost().queries(2).verify();
+    }
+
+    @Test
+    public void streamRegistrations() throws Exception {
+        final MvcResult result = this.mockMvc
+            .perform(get("/api/events/{heldOn}/{name}/registrations", this.tomorrow, "Open Event")
+                .accept(MediaType.APPLICATION_STREAM_JSON))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        this.mockMvc
+            .perform(asyncDispatch(result))
+            .andExpect(status().isOk());
+
+        StatementBudget.atMost().queries(2).verify();
+    }
+
+    @Test
+    public void importRegistrations() throws Exception {
+        this.mockMvc
+            .perform(post("/api/events/{heldOn}/{name}/registrations/import", this.tomorrow, "Open Event")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("["
+                    + "{\"email\": \"imported1@test.com\", \"name\": \"Imported 1\"},"
+                    + "{\"email\": \"imported2@test.com\", \"name\": \"Imported 2\"}"
+                    + "]")
+                .accept(HAL_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("_embedded.results[1].status").value("registered"));
+
+        // Locks the event and looks up the registered emails
+        StatementBudget.atMost().queries(2).updates(1).inserts(1).verify();
+    }
+
+    @Test
+    public void registerFor() throws Exception {
+        this.mockMvc
+            .perform(post("/api/events/{heldOn}/{name}/registrations", this.tomorrow, "Open Event")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\": \"registered@test.com\", \"name\": \"Registered\"}")
+                .accept(HAL_JSON))
+            .andExpect(status().isCreated());
+
+        // Loads the event and checks for an existing registration
+        StatementBudget.atMost().queries(2).updates(1).inserts(1).verify();
+    }
+
+    @Test
+    public void registerForFullEvent() throws Exception {
+        this.jdbcTemplate.update("INSERT INTO events (held_on, name, number_of_seats) VALUES (?, 'Full Event', 0)",
+            Date.valueOf(this.tomorrow));
+        StatementCounter.reset();
+
+        this.mockMvc
+            .perform(post("/api/events/{heldOn}/{name}/registrations", this.tomorrow, "Full Event")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\": \"waitlisted@test.com\", \"name\": \"Waitlisted\"}")
+                .accept(HAL_JSON))
+            .andExpect(status().isAccepted());
+
+        // Loads the event, locks it to join the waitlist and checks for an existing registration and waitlist entry.
+        // A seat freed in the meantime is claimed with one conditional update.
+        StatementBudget.atMost().queries(4).updates(1).inserts(1).verify();
+    }
+
+    @Test
+    public void cancelRegistration() throws Exception {
+        this.mockMvc
+            .perform(post("/api/events/{heldOn}/{name}/registrations", this.tomorrow, "Open Event")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\": \"cancelled@test.com\", \"name\": \"Cancelled\"}")
+                .accept(HAL_JSON))
+            .andExpect(status().isCreated());
+        StatementCounter.reset();
+
+        this.mockMvc
+            .perform(post("/api/events/{heldOn}/{name}/cancellations", this.tomorrow, "Open Event")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\": \"cancelled@test.com\"}"))
+            .andExpect(status().isNoContent());
+
+        // Locks the event, releases the seat and tries to promote the first person on the waitlist
+        StatementBudget.atMost().queries(1).deletes(1).updates(1).inserts(1).verify();
+    }
+}
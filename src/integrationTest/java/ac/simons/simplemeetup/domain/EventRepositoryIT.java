@@ -18,6 +18,8 @@ package ac.simons.simplemeetup.domain;
 import ac.simons.simplemeetup.support.PortMappingInitializer;
 import ac.simons.simplemeetup.support.PostgresHealthChecks;
 import ac.simons.simplemeetup.support.PropagateDockerRule;
+import ac.simons.simplemeetup.support.StatementBudget;
+import ac.simons.simplemeetup.support.StatementCounter;
 import com.palantir.docker.compose.DockerComposeRule;
 import com.palantir.docker.compose.connection.waiting.HealthChecks;
 import org.junit.ClassRule;
@@ -27,14 +29,29 @@ import org.junit.rules.TestRule;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import java.sql.Date;
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assume.assumeTrue;
 
 /**
  * @author Michael J. Simons, 2017-11-05
@@ -43,6 +60,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 @RunWith(SpringRunner.class)
 // end::event-repository-custom-query-test[]
 @ActiveProfiles("it")
+@Import(StatementCounter.class)
 // tag::event-repository-custom-query-test[]
 @DataJpaTest
 @ContextConfiguration(initializers = PortMappingInitializer.class)
@@ -62,6 +80,14 @@ public class EventRepositoryIT {
 
     @Autowired
     private EventRepository eventRepository;
+    // end::event-repository-custom-query-test[]
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    // tag::event-repository-custom-query-test[]
 
     @Test
     public void someTest() {
@@ -76,5 +102,320 @@ public class EventRepositoryIT {
             .first()
             .isEqualTo(19);
     }
+    // end::event-repository-custom-query-test[]
+
+    @Test
+    public void openEventsShouldBeListedThroughAnIndex() {
+        // The plan is specific to PostgreSQL and its partial index
+        assumeTrue(this.jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+            "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())));
+
+        // Mostly past or closed events and a few upcoming ones, so that a sequential scan doesn't pay off
+        final LocalDate today = LocalDate.now();
+        final List<Object[]> events = IntStream.range(0, 20_000)
+            .mapToObj(i -> {
+                final boolean upcoming = i % 50 == 0;
+                final LocalDate heldOn = upcoming ? today.plusDays(2 + i % 365) : today.minusDays(1 + i % 3650);
+                final String status = !upcoming && i % 3 == 0 ? "closed" : "open";
+                return new Object[]{java.sql.Date.valueOf(heldOn), "Generated event " + i, status};
+            })
+            .collect(Collectors.toList());
+        this.jdbcTemplate.batchUpdate(
+            "INSERT INTO events (held_on, name, number_of_seats, status) VALUES (?, ?, 20, ?)", events);
+        this.jdbcTemplate.execute("ANALYZE events");
+
+        final String plan = String.join("\n", this.jdbcTemplate.queryForList(
+            "EXPLAIN SELECT * FROM events WHERE status = 'open' AND held_on > current_date "
+                + "ORDER BY held_on, name LIMIT 20", String.class)).toLowerCase(Locale.ENGLISH);
+
+        assertThat(plan)
+            .contains("index scan using events_open_held_on_idx")
+            .doesNotContain("seq scan")
+            .doesNotContain("sort");
+    }
+
+    @Test
+    public void eventsShouldBeFoundByTheirKey() {
+        final LocalDate tomorrow = LocalDate.now().plusDays(1);
+
+        assertThat(this.eventRepository.findOneByHeldOnAndName(tomorrow, "Open Event"))
+            .hasValueSatisfying(event -> assertThat(event.getNumberOfFreeSeats()).isEqualTo(19));
+        assertThat(this.eventRepository.findOneByHeldOnAndName(LocalDate.of(2017, 9, 21), "Michaels Geburtstag"))
+            .isPresent();
+        assertThat(this.eventRepository.findOneByHeldOnAndName(tomorrow, "Michaels Geburtstag"))
+            .isEmpty();
+    }
+
+    @Test
+    public void freeSeatsOfOpenEventsShouldBeCounted() {
+        final LocalDate tomorrow = LocalDate.now().plusDays(1);
+        this.eventRepository.save(new Event(tomorrow, "Another Event", 5));
+        final Event closedEvent = new Event(tomorrow, "A closed Event", 7);
+        closedEvent.close();
+        this.eventRepository.save(closedEvent);
+
+        assertThat(this.eventRepository.countFreeSeatsOfOpenEvents()).isEqualTo(19 + 5);
+    }
+
+    @Test
+    public void openEventsShouldBeScrollable() {
+        final LocalDate tomorrow = LocalDate.now().plusDays(1);
+        this.eventRepository.save(new Event(tomorrow, "Another Event"));
+        this.eventRepository.save(new Event(tomorrow.plusDays(1), "A later Event"));
+
+        assertThat(this.eventRepository.findOpenEvents(PageRequest.of(0, 2)))
+            .extracting(Event::getName)
+            .containsExactly("Another Event", "Open Event");
+        assertThat(this.eventRepository.findOpenEventsAfter(tomorrow, "Open Event", PageRequest.of(0, 2)))
+            .extracting(Event::getName)
+            .containsExactly("A later Event");
+        assertThat(this.eventRepository.findOpenEventsBefore(tomorrow, "Open Event", PageRequest.of(0, 2)))
+            .extracting(Event::getName)
+            .containsExactly("Another Event");
+    }
+
+    @Test
+    public void listingEventsShouldNotLoadRegistrations() {
+        final LocalDate tomorrow = LocalDate.now().plusDays(1);
+        for (int i = 0; i < 5; ++i) {
+            final Event event = this.eventRepository.save(new Event(tomorrow, "Event " + i));
+            this.eventRepository.claimSeat(event);
+            this.eventRepository.addRegistration(event, new Registration(new Person("test@test.com", "test")));
+        }
+        this.entityManager.flush();
+        this.entityManager.clear();
+
+        StatementCounter.reset();
+        final List<Event> openEvents = this.eventRepository.findOpenEvents(PageRequest.of(0, 10));
+
+        assertThat(openEvents)
+            .hasSize(6)
+            .extracting(Event::getNumberOfFreeSeats)
+            .containsOnly(19);
+        StatementBudget.atMost().queries(1).verify();
+    }
+
+    @Test
+    public void registrationsShouldBeCheckedAndAddedWithoutLoadingThem() {
+        final Event openEvent = this.eventRepository
+            .findOneByHeldOnAndName(LocalDate.now().plusDays(1), "Open Event").get();
+
+        assertThat(this.eventRepository.isRegistered(openEvent, "michael.simons@innoq.com")).isTrue();
+        assertThat(this.eventRepository.isRegistered(openEvent, "test@test.com")).isFalse();
+
+        this.eventRepository.addRegistration(openEvent, new Registration(new Person("test@test.com", "test")));
+
+        assertThat(this.eventRepository.isRegistered(openEvent, "test@test.com")).isTrue();
+    }
+
+    @Test
+    public void registrationsShouldBeSelectedWithoutInitializingTheCollection() {
+        final Event openEvent = this.eventRepository
+            .findOneByHeldOnAndName(LocalDate.now().plusDays(1), "Open Event").get();
+        this.entityManager.detach(openEvent);
+
+        assertThat(this.eventRepository.findAllRegistrations(openEvent))
+            .extracting(Registration::getEmail)
+            .containsExactly("michael.simons@innoq.com");
+    }
+
+    @Test
+    public void registrationsShouldBeStreamed() {
+        final Event openEvent = this.eventRepository
+            .findOneByHeldOnAndName(LocalDate.now().plusDays(1), "Open Event").get();
+        this.eventRepository.addRegistration(openEvent, new Registration(new Person("test@test.com", "test")));
+        this.entityManager.clear();
+
+        try (Stream<Registration> registrations = this.eventRepository.streamAllRegistrations(openEvent)) {
+            assertThat(registrations.map(Registration::getEmail))
+                .containsExactlyInAnyOrder("michael.simons@innoq.com", "test@test.com");
+        }
+    }
+
+    @Test
+    public void eventsShouldBeInsertedInBatches() {
+        final LocalDate heldOn = LocalDate.now().plusDays(3);
+        final List<Event> newEvents = IntStream.range(0, 250)
+            .mapToObj(i -> new Event(heldOn, "Imported event " + i))
+            .collect(Collectors.toList());
+
+        StatementCounter.reset();
+        this.eventRepository.insertAll(newEvents);
+
+        // One round trip for each batch of 100 events and each block of 50 ids
+        assertThat(StatementCounter.count("insert into events")).isEqualTo(3);
+        StatementBudget.atMost().queries(5).inserts(3).verify();
+        // No ids are wasted, the selected blocks follow each other
+        assertThat(this.jdbcTemplate.queryForObject(
+            "SELECT max(id) - min(id) + 1 FROM events WHERE held_on = ?", Integer.class, Date.valueOf(heldOn)))
+            .isEqualTo(250);
+
+        assertThat(this.eventRepository.findAllByHeldOnInAndNameIn(
+            Collections.singleton(heldOn), newEvents.stream().map(Event::getName).collect(Collectors.toSet())))
+            .containsExactlyInAnyOrderElementsOf(newEvents)
+            .allSatisfy(event -> {
+                assertThat(event.getId()).isNotNull();
+                assertThat(event.isOpen()).isTrue();
+                assertThat(event.getNumberOfFreeSeats()).isEqualTo(20);
+            });
+    }
+
+    @Test
+    public void savedEventsShouldBeInsertedInBatches() {
+        final LocalDate heldOn = LocalDate.now().plusDays(4);
+        final List<Event> newEvents = IntStream.range(0, 120)
+            .mapToObj(i -> new Event(heldOn, "Saved event " + i))
+            .collect(Collectors.toList());
+
+        StatementCounter.reset();
+        newEvents.forEach(this.eventRepository::save);
+        this.entityManager.flush();
+
+        assertThat(newEvents).extracting(Event::getId).doesNotContainNull().doesNotHaveDuplicates();
+        // One round trip for each batch and each block of ids, both of them have a size of 50
+        assertThat(StatementCounter.count("insert into events")).isEqualTo(3);
+        StatementBudget.atMost().queries(3).inserts(3).verify();
+    }
+
+    @Test
+    public void registrationsShouldBeAddedInBatches() {
+        final Event openEvent = this.eventRepository
+            .findOneForUpdateByHeldOnAndName(LocalDate.now().plusDays(1), "Open Event").get();
+
+        assertThat(this.eventRepository.findRegisteredEmails(openEvent,
+            Arrays.asList("michael.simons@innoq.com", "test@test.com"))).containsExactly("michael.simons@innoq.com");
+        assertThat(this.eventRepository.claimSeats(openEvent, 2)).isEqualTo(1);
+        assertThat(this.eventRepository.claimSeats(openEvent, 18)).isEqualTo(0);
+        this.eventRepository.addRegistrations(openEvent, Arrays.asList(
+            new Registration(new Person("test1@test.com", "test1")),
+            new Registration(new Person("test2@test.com", "test2"))));
+        this.entityManager.clear();
+
+        final Event reloadedEvent = this.eventRepository
+            .findOneByHeldOnAndName(LocalDate.now().plusDays(1), "Open Event").get();
+        assertThat(reloadedEvent.getNumberOfFreeSeats()).isEqualTo(17);
+        assertThat(this.eventRepository.findAllRegistrations(reloadedEvent)).hasSize(3);
+    }
+
+    @Test
+    public void waitlistShouldBePromotedInOrder() {
+        final LocalDate tomorrow = LocalDate.now().plusDays(1);
+        final Event openEvent = this.eventRepository.findOneForUpdateByHeldOnAndName(tomorrow, "Open Event").get();
+        this.eventRepository.addToWaitlist(openEvent, new Registration(new Person("first@test.com", "first")));
+        this.eventRepository.addToWaitlist(openEvent, new Registration(new Person("second@test.com", "second")));
+        assertThat(this.eventRepository.isWaitlisted(openEvent, "first@test.com")).isTrue();
+
+        assertThat(this.eventRepository.removeRegistration(openEvent, "michael.simons@innoq.com")).isEqualTo(1);
+        assertThat(this.eventRepository.releaseSeat(openEvent)).isEqualTo(1);
+        assertThat(this.eventRepository.addRegistrationsFromWaitlist(openEvent, 1)).isEqualTo(1);
+        assertThat(this.eventRepository.claimSeats(openEvent, 1)).isEqualTo(1);
+        assertThat(this.eventRepository.removeFirstFromWaitlist(openEvent, 1)).isEqualTo(1);
+        this.entityManager.clear();
+
+        final Event reloadedEvent = this.eventRepository.findOneByHeldOnAndName(tomorrow, "Open Event").get();
+        assertThat(reloadedEvent.getNumberOfFreeSeats()).isEqualTo(19);
+        assertThat(reloadedEvent.getNumberOfCancellations()).isEqualTo(1);
+        assertThat(this.eventRepository.findAllRegistrations(reloadedEvent))
+            .extracting(Registration::getEmail)
+            .containsExactly("first@test.com");
+        assertThat(this.eventRepository.isWaitlisted(reloadedEvent, "first@test.com")).isFalse();
+        assertThat(this.eventRepository.isWaitlisted(reloadedEvent, "second@test.com")).isTrue();
+    }
+
+    @Test
+    public void statusShouldBeSelectedForUpdateEvenIfTheEventHasBeenLoaded() {
+        final Event openEvent = this.eventRepository
+            .findOneByHeldOnAndName(LocalDate.now().plusDays(1), "Open Event").get();
+        this.jdbcTemplate.update("UPDATE events SET status = 'closed' WHERE id = ?", openEvent.getId());
+
+        assertThat(this.eventRepository.findStatusForUpdate(openEvent)).isEqualTo(Event.Status.closed);
+        assertThat(openEvent.isOpen()).isTrue();
+    }
+
+    @Test
+    public void eventsShouldBeRefreshedWhenLockedAfterTheyHaveBeenLoaded() {
+        final Event openEvent = this.eventRepository
+            .findOneByHeldOnAndName(LocalDate.now().plusDays(1), "Open Event").get();
+        this.jdbcTemplate.update(
+            "UPDATE events SET number_of_registrations = number_of_seats WHERE id = ?", openEvent.getId());
+        StatementCounter.reset();
+
+        final Event lockedEvent = this.eventRepository
+            .findOneForUpdateByHeldOnAndName(openEvent.getHeldOn(), openEvent.getName()).get();
+        assertThat(lockedEvent).isSameAs(openEvent);
+        assertThat(lockedEvent.isFull()).isTrue();
+        // The locking query and the refresh
+        StatementBudget.atMost().queries(2).verify();
+    }
+
+    @Test
+    public void eventsLoadedByLockingThemShouldNotBeRefreshed() {
+        StatementCounter.reset();
+
+        assertThat(this.eventRepository.findOneForUpdateByHeldOnAndName(LocalDate.now().plusDays(1), "Open Event"))
+            .isPresent();
+        StatementBudget.atMost().queries(1).verify();
+    }
+
+    @Test
+    public void registrationsShouldBeLoadedOrderedByEmail() {
+        final Event openEvent = this.eventRepository
+            .findOneByHeldOnAndName(LocalDate.now().plusDays(1), "Open Event").get();
+        Stream.of("zoe@test.com", "anna@test.com").forEach(email -> this.jdbcTemplate.update(
+            "INSERT INTO registrations (event_id, email, name) VALUES (?, ?, ?)", openEvent.getId(), email, email));
+        this.entityManager.clear();
+
+        final Event reloadedEvent = this.eventRepository.findOneByHeldOnAndName(openEvent.getHeldOn(), "Open Event").get();
+        assertThat(reloadedEvent.getRegistrations())
+            .extracting(Registration::getEmail)
+            .containsExactly("anna@test.com", "michael.simons@innoq.com", "zoe@test.com");
+        assertThat(this.eventRepository.findAllRegistrations(reloadedEvent))
+            .extracting(Registration::getEmail)
+            .containsExactly("anna@test.com", "michael.simons@innoq.com", "zoe@test.com");
+        try (Stream<Registration> registrations = this.eventRepository.streamAllRegistrations(reloadedEvent)) {
+            assertThat(registrations.map(Registration::getEmail))
+                .containsExactly("anna@test.com", "michael.simons@innoq.com", "zoe@test.com");
+        }
+    }
+
+    @Test
+    public void registeringShouldInsertExactlyOneRow() {
+        final Event openEvent = this.eventRepository
+            .findOneByHeldOnAndName(LocalDate.now().plusDays(1), "Open Event").get();
+
+        StatementCounter.reset();
+        openEvent.register(new Person("test@test.com", "test"));
+        this.entityManager.flush();
+
+        assertThat(StatementCounter.count("insert into registrations")).isEqualTo(1);
+        StatementBudget.atMost().queries(1).inserts(1).updates(1).verify();
+    }
+
+    @Test
+    public void insertingExistingEventsShouldViolateTheUniqueKey() {
+        final List<Event> newEvents = Arrays.asList(
+            new Event(LocalDate.now().plusDays(3), "Not yet existing"),
+            new Event(LocalDate.now().plusDays(1), "Open Event"));
+
+        assertThatThrownBy(() -> this.eventRepository.insertAll(newEvents))
+            .isInstanceOf(DataIntegrityViolationException.class)
+            .satisfies(e -> assertThat(((DataIntegrityViolationException) e).getMostSpecificCause().getMessage())
+                .containsIgnoringCase("events_uk"));
+    }
+
+    @Test
+    public void registrationCounterShouldStayWithinTheNumberOfSeats() {
+        assertThatThrownBy(() -> this.jdbcTemplate.update(
+            "UPDATE events SET number_of_registrations = number_of_seats + 1 WHERE name = 'Open Event'"))
+            .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    public void registrationCounterShouldNotBeNegative() {
+        assertThatThrownBy(() -> this.jdbcTemplate.update(
+            "UPDATE events SET number_of_registrations = -1 WHERE name = 'Open Event'"))
+            .isInstanceOf(DataIntegrityViolationException.class);
+    }
+    // tag::event-repository-custom-query-test[]
 }
 // end::event-repository-custom-query-test[]
@@ -0,0 +1,383 @@
+/*
+ * Copyright 2026 michael-simons.eu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.simplemeetup.domain;
+
+import ac.simons.simplemeetup.support.PortMappingInitializer;
+import ac.simons.simplemeetup.support.PostgresHealthChecks;
+import ac.simons.simplemeetup.support.PropagateDockerRule;
+import com.palantir.docker.compose.DockerComposeRule;
+import com.palantir.docker.compose.connection.waiting.HealthChecks;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+import org.junit.rules.TestRule;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the service against a real database, outside of a test managed transaction.
+ *
+ * @author Michael J. Simons, 2026-10-18
+ */
+@RunWith(SpringRunner.class)
+@ActiveProfiles("it")
+@DataJpaTest
+@Import({EventService.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ContextConfiguration(initializers = PortMappingInitializer.class)
+public class EventServiceIT {
+
+    private static final int NUMBER_OF_SEATS = 25;
+
+    private static final int NUMBER_OF_THREADS = 16;
+
+    private static final int NUMBER_OF_ATTEMPTS = 200;
+
+    private static DockerComposeRule docker = DockerComposeRule.builder()
+        .file("src/integrationTest/resources/docker-compose.yml")
+        .waitingForService("it-database", HealthChecks.toHaveAllPortsOpen())
+        .waitingForService("it-database", PostgresHealthChecks::canConnectTo)
+        .build();
+
+    @ClassRule
+    public static TestRule exposePortMappings = RuleChain.outerRule(docker)
+        .around(new PropagateDockerRule(docker));
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    public void concurrentRegistrationsShouldNeverOversellAnEvent() throws Exception {
+        final Event ticketDrop = this.eventService.createNewEvent(
+            new Event(LocalDate.now().plusDays(2), "Ticket drop", NUMBER_OF_SEATS));
+
+        final List<Callable<RegistrationOutcome>> registrations = new ArrayList<>();
+        for (int i = 0; i < NUMBER_OF_ATTEMPTS; ++i) {
+            final Person person = new Person(String.format("attendee%d@test.com", i), "Attendee " + i);
+            registrations.add(() -> this.eventService.registerOrWaitlist(ticketDrop, person));
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(NUMBER_OF_THREADS);
+        final List<RegistrationOutcome> outcomes = new ArrayList<>();
+        try {
+            for (Future<RegistrationOutcome> registration : executor.invokeAll(registrations)) {
+                outcomes.add(registration.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(outcomes).filteredOn(RegistrationOutcome.registered::equals).hasSize(NUMBER_OF_SEATS);
+        assertThat(outcomes).filteredOn(RegistrationOutcome.waitlisted::equals)
+            .hasSize(NUMBER_OF_ATTEMPTS - NUMBER_OF_SEATS);
+        assertThat(this.jdbcTemplate.queryForObject(
+            "SELECT number_of_registrations FROM events WHERE id = ?", Integer.class, ticketDrop.getId()))
+            .isEqualTo(NUMBER_OF_SEATS);
+        assertThat(this.jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM registrations WHERE event_id = ?", Integer.class, ticketDrop.getId()))
+            .isEqualTo(NUMBER_OF_SEATS);
+    }
+
+    @Test
+    public void concurrentBatchRegistrationsShouldNeverOversellAnEvent() throws Exception {
+        final Event ticketDrop = this.eventService.createNewEvent(
+            new Event(LocalDate.now().plusDays(2), "Ticket drop", NUMBER_OF_SEATS));
+
+        final List<Callable<Long>> batches = new ArrayList<>();
+        for (int i = 0; i < NUMBER_OF_ATTEMPTS; i += 10) {
+            final List<Person> persons = new ArrayList<>();
+            for (int j = i; j < i + 10; ++j) {
+                persons.add(new Person(String.format("attendee%d@test.com", j), "Attendee " + j));
+            }
+            batches.add(() -> this.eventService.registerAll(ticketDrop, persons).stream()
+                .filter(RegistrationOutcome.registered::equals)
+                .count());
+            final Person single = new Person(String.format("single%d@test.com", i), "Single " + i);
+            batches.add(() ->
+                this.eventService.registerOrWaitlist(ticketDrop, single) == RegistrationOutcome.registered ? 1L : 0L);
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(NUMBER_OF_THREADS);
+        long successfulRegistrations = 0;
+        try {
+            for (Future<Long> batch : executor.invokeAll(batches)) {
+                successfulRegistrations += batch.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(successfulRegistrations).isEqualTo(NUMBER_OF_SEATS);
+        assertThat(this.jdbcTemplate.queryForObject(
+            "SELECT number_of_registrations FROM events WHERE id = ?", Integer.class, ticketDrop.getId()))
+            .isEqualTo(NUMBER_OF_SEATS);
+        assertThat(this.jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM registrations WHERE event_id = ?", Integer.class, ticketDrop.getId()))
+            .isEqualTo(NUMBER_OF_SEATS);
+    }
+
+    @Test
+    public void concurrentlySubmittedRegistrationsShouldBeWrittenBehindWithoutOverselling() throws Exception {
+        final Event ticketDrop = this.eventService.createNewEvent(
+            new Event(LocalDate.now().plusDays(2), "Ticket drop", NUMBER_OF_SEATS));
+
+        final RegistrationIntake registrationIntake
+            = new RegistrationIntake(this.eventService, NUMBER_OF_ATTEMPTS, 10, 10, new SimpleMeterRegistry());
+        final List<Callable<RegistrationRequest>> submissions = new ArrayList<>();
+        for (int i = 0; i < NUMBER_OF_ATTEMPTS; ++i) {
+            final Person person = new Person(String.format("attendee%d@test.com", i), "Attendee " + i);
+            submissions.add(() -> registrationIntake.submit(ticketDrop, person));
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(NUMBER_OF_THREADS);
+        final List<RegistrationRequest> requests = new ArrayList<>();
+        try {
+            for (Future<RegistrationRequest> submission : executor.invokeAll(submissions)) {
+                requests.add(submission.get());
+            }
+        } finally {
+            executor.shutdown();
+            registrationIntake.destroy();
+        }
+
+        assertThat(requests).extracting(RegistrationRequest::getStatus)
+            .doesNotContain(RegistrationRequest.Status.pending, RegistrationRequest.Status.rejected);
+        assertThat(requests).filteredOn(request -> request.getStatus() == RegistrationRequest.Status.registered)
+            .hasSize(NUMBER_OF_SEATS);
+        assertThat(this.jdbcTemplate.queryForObject(
+            "SELECT number_of_registrations FROM events WHERE id = ?", Integer.class, ticketDrop.getId()))
+            .isEqualTo(NUMBER_OF_SEATS);
+        assertThat(this.jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM registrations WHERE event_id = ?", Integer.class, ticketDrop.getId()))
+            .isEqualTo(NUMBER_OF_SEATS);
+    }
+
+    @Test
+    public void concurrentCreatorsShouldCreateAnEventExactlyOnce() throws Exception {
+        final List<Callable<Boolean>> creators = new ArrayList<>();
+        for (int i = 0; i < NUMBER_OF_THREADS * 2; ++i) {
+            creators.add(() -> {
+                try {
+                    this.eventService.createNewEvent(
+                        new Event(LocalDate.now().plusDays(2), "Ticket drop", NUMBER_OF_SEATS));
+                    return true;
+                } catch (DuplicateEventException e) {
+                    return false;
+                }
+            });
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(NUMBER_OF_THREADS);
+        long successfulCreations = 0;
+        try {
+            for (Future<Boolean> creator : executor.invokeAll(creators)) {
+                if (creator.get()) {
+                    ++successfulCreations;
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(successfulCreations).isEqualTo(1);
+        assertThat(this.jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM events WHERE name = 'Ticket drop'", Integer.class))
+            .isEqualTo(1);
+    }
+
+    @Test
+    public void concurrentRegistrationsShouldBeCommittedInGroupsWithoutOverselling() throws Exception {
+        final Event ticketDrop = this.eventService.createNewEvent(
+            new Event(LocalDate.now().plusDays(2), "Ticket drop", NUMBER_OF_SEATS));
+
+        final RegistrationGroupCommit groupCommit = new RegistrationGroupCommit(this.eventService, 100, 0);
+        final List<Callable<RegistrationOutcome>> registrations = new ArrayList<>();
+        for (int i = 0; i < NUMBER_OF_ATTEMPTS; ++i) {
+            final Person person = new Person(String.format("attendee%d@test.com", i), "Attendee " + i);
+            registrations.add(() -> groupCommit.registerOrWaitlist(ticketDrop, person));
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(NUMBER_OF_THREADS);
+        final List<RegistrationOutcome> outcomes = new ArrayList<>();
+        try {
+            for (Future<RegistrationOutcome> registration : executor.invokeAll(registrations)) {
+                outcomes.add(registration.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(outcomes).filteredOn(RegistrationOutcome.registered::equals).hasSize(NUMBER_OF_SEATS);
+        assertThat(outcomes).filteredOn(RegistrationOutcome.waitlisted::equals)
+            .hasSize(NUMBER_OF_ATTEMPTS - NUMBER_OF_SEATS);
+        assertThat(this.jdbcTemplate.queryForObject(
+            "SELECT number_of_registrations FROM events WHERE id = ?", Integer.class, ticketDrop.getId()))
+            .isEqualTo(NUMBER_OF_SEATS);
+        assertThat(this.jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM registrations WHERE event_id = ?", Integer.class, ticketDrop.getId()))
+            .isEqualTo(NUMBER_OF_SEATS);
+        assertThat(this.jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM waitlist WHERE event_id = ?", Integer.class, ticketDrop.getId()))
+            .isEqualTo(NUMBER_OF_ATTEMPTS - NUMBER_OF_SEATS);
+    }
+
+    @Test
+    public void batchesOfOneLeaderShouldSeeRegistrationsCommittedInBetween() throws Exception {
+        final Event ticketDrop = this.eventService.createNewEvent(
+            new Event(LocalDate.now().plusDays(2), "Ticket drop", 3));
+
+        // A leader writes all of its batches on the entity manager bound to its thread
+        final EntityManager entityManager = this.entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager
+            .bindResource(this.entityManagerFactory, new EntityManagerHolder(entityManager));
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            assertThat(this.eventService.registerAllOrWaitlist(ticketDrop,
+                Arrays.asList(new Person("a@test.com", "a"), new Person("b@test.com", "b"))))
+                .containsExactly(RegistrationOutcome.registered, RegistrationOutcome.registered);
+            assertThat(executor.submit(() ->
+                this.eventService.registerOrWaitlist(ticketDrop, new Person("c@test.com", "c"))).get())
+                .isEqualTo(RegistrationOutcome.registered);
+            assertThat(this.eventService.registerAllOrWaitlist(ticketDrop,
+                Arrays.asList(new Person("d@test.com", "d"), new Person("e@test.com", "e"))))
+                .containsExactly(RegistrationOutcome.waitlisted, RegistrationOutcome.waitlisted);
+        } finally {
+            executor.shutdown();
+            TransactionSynchronizationManager.unbindResource(this.entityManagerFactory);
+            entityManager.close();
+        }
+
+        assertThat(this.jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM registrations WHERE event_id = ?", Integer.class, ticketDrop.getId()))
+            .isEqualTo(3);
+        assertThat(this.jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM waitlist WHERE event_id = ?", Integer.class, ticketDrop.getId()))
+            .isEqualTo(2);
+    }
+
+    @Test
+    public void freedSeatsShouldGoToTheWaitlistInOrder() {
+        final Event ticketDrop = this.eventService.createNewEvent(
+            new Event(LocalDate.now().plusDays(2), "Ticket drop", 2));
+        final List<RegistrationOutcome> outcomes = new ArrayList<>();
+        for (String attendee : Arrays.asList("a", "b", "c", "d", "e")) {
+            outcomes.add(this.eventService.registerOrWaitlist(ticketDrop, new Person(attendee + "@test.com", attendee)));
+        }
+        assertThat(outcomes).containsExactly(RegistrationOutcome.registered, RegistrationOutcome.registered,
+            RegistrationOutcome.waitlisted, RegistrationOutcome.waitlisted, RegistrationOutcome.waitlisted);
+
+        this.eventService.cancelRegistration(ticketDrop, "a@test.com");
+        this.eventService.cancelRegistration(ticketDrop, "d@test.com");
+        this.eventService.cancelRegistration(ticketDrop, "b@test.com");
+
+        assertThat(this.jdbcTemplate.queryForList(
+            "SELECT email FROM registrations WHERE event_id = ? ORDER BY email", String.class, ticketDrop.getId()))
+            .containsExactly("c@test.com", "e@test.com");
+        assertThat(this.jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM waitlist WHERE event_id = ?", Integer.class, ticketDrop.getId()))
+            .isZero();
+        assertThat(this.eventService.getEvent(ticketDrop.getHeldOn(), ticketDrop.getName()))
+            .hasValueSatisfying(event -> {
+                assertThat(event.getNumberOfFreeSeats()).isZero();
+                assertThat(event.getNumberOfCancellations()).isEqualTo(2);
+            });
+    }
+
+    @Test
+    public void concurrentCancellationsShouldNeverLeaveSeatsFreeForWaitlistedPersons() throws Exception {
+        final Event ticketDrop = this.eventService.createNewEvent(
+            new Event(LocalDate.now().plusDays(2), "Ticket drop", NUMBER_OF_SEATS));
+        final List<Person> attendees = new ArrayList<>();
+        for (int i = 0; i < NUMBER_OF_SEATS; ++i) {
+            attendees.add(new Person(String.format("attendee%d@test.com", i), "Attendee " + i));
+        }
+        this.eventService.registerAll(ticketDrop, attendees);
+
+        final List<Callable<RegistrationOutcome>> changes = new ArrayList<>();
+        for (int i = 0; i < NUMBER_OF_SEATS * 2; ++i) {
+            final Person latecomer = new Person(String.format("latecomer%d@test.com", i), "Latecomer " + i);
+            changes.add(() -> this.eventService.registerOrWaitlist(ticketDrop, latecomer));
+            if (i < NUMBER_OF_SEATS) {
+                final Person attendee = attendees.get(i);
+                changes.add(() -> {
+                    this.eventService.cancelRegistration(ticketDrop, attendee.getEmail());
+                    return null;
+                });
+            }
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(NUMBER_OF_THREADS);
+        try {
+            for (Future<RegistrationOutcome> change : executor.invokeAll(changes)) {
+                change.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // Each cancellation frees a seat for a latecomer, either directly or from the waitlist
+        assertThat(this.jdbcTemplate.queryForObject(
+            "SELECT number_of_registrations FROM events WHERE id = ?", Integer.class, ticketDrop.getId()))
+            .isEqualTo(NUMBER_OF_SEATS);
+        assertThat(this.jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM registrations WHERE event_id = ? AND email LIKE 'latecomer%'",
+            Integer.class, ticketDrop.getId()))
+            .isEqualTo(NUMBER_OF_SEATS);
+        assertThat(this.jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM waitlist WHERE event_id = ?", Integer.class, ticketDrop.getId()))
+            .isEqualTo(NUMBER_OF_SEATS);
+    }
+
+    @After
+    public void deleteTicketDrop() {
+        this.jdbcTemplate.update(
+            "DELETE FROM waitlist WHERE event_id IN (SELECT id FROM events WHERE name = 'Ticket drop')");
+        this.jdbcTemplate.update(
+            "DELETE FROM registrations WHERE event_id IN (SELECT id FROM events WHERE name = 'Ticket drop')");
+        this.jdbcTemplate.update("DELETE FROM events WHERE name = 'Ticket drop'");
+    }
+}
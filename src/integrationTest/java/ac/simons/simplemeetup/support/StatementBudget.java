@@ -0,0 +1,135 @@
+/*
+ * Copyright 2026 michael-simons.eu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.simplemeetup.support;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A budget for the round trips recorded by the {@link StatementCounter}. Every kind of statement that is not granted
+ * explicitly has a budget of zero, so that any additional round trip fails the test:
+ * <pre>
+ * StatementCounter.reset();
+ * // Call the code under test
+ * StatementBudget.atMost().queries(2).inserts(1).verify();
+ * </pre>
+ *
+ * @author Michael J. Simons, 2026-10-18
+ */
+public final class StatementBudget {
+
+    /**
+     * The kinds of statements a budget is given for. Reading a sequence is a query as well, which is a
+     * {@literal call} on some databases.
+     */
+    enum Kind {
+        QUERY("queries", "select", "with", "call"),
+        INSERT("inserts", "insert"),
+        UPDATE("updates", "update"),
+        DELETE("deletes", "delete"),
+        OTHER("other statements");
+
+        private final String description;
+
+        private final String[] keywords;
+
+        Kind(final String description, final String... keywords) {
+            this.description = description;
+            this.keywords = keywords;
+        }
+
+        static Kind of(final String statement) {
+            for (Kind kind : values()) {
+                for (String keyword : kind.keywords) {
+                    if (statement.startsWith(keyword)) {
+                        return kind;
+                    }
+                }
+            }
+            return OTHER;
+        }
+    }
+
+    private final Map<Kind, Integer> limits = new EnumMap<>(Kind.class);
+
+    private StatementBudget() {
+    }
+
+    /**
+     * @return A new budget without any statement granted
+     */
+    public static StatementBudget atMost() {
+        return new StatementBudget();
+    }
+
+    /**
+     * @param limit Maximum number of queries
+     * @return This budget
+     */
+    public StatementBudget queries(final int limit) {
+        this.limits.put(Kind.QUERY, limit);
+        return this;
+    }
+
+    /**
+     * @param limit Maximum number of inserts, a batch counting as one
+     * @return This budget
+     */
+    public StatementBudget inserts(final int limit) {
+        this.limits.put(Kind.INSERT, limit);
+        return this;
+    }
+
+    /**
+     * @param limit Maximum number of updates, a batch counting as one
+     * @return This budget
+     */
+    public StatementBudget updates(final int limit) {
+        this.limits.put(Kind.UPDATE, limit);
+        return this;
+    }
+
+    /**
+     * @param limit Maximum number of deletes, a batch counting as one
+     * @return This budget
+     */
+    public StatementBudget deletes(final int limit) {
+        this.limits.put(Kind.DELETE, limit);
+        return this;
+    }
+
+    /**
+     * Asserts that the statements recorded since the last reset of the {@link StatementCounter} are within this
+     * budget.
+     */
+    public void verify() {
+        final List<String> statements = StatementCounter.getStatements();
+        final Map<Kind, List<String>> statementsByKind = statements.stream().collect(Collectors.groupingBy(Kind::of));
+        for (Kind kind : Kind.values()) {
+            final int limit = this.limits.getOrDefault(kind, 0);
+            final List<String> statementsOfKind = statementsByKind.getOrDefault(kind, Collections.emptyList());
+            assertThat(statementsOfKind.size())
+                .withFailMessage("Expected at most %d %s but %d have been executed:%n%s",
+                    limit, kind.description, statementsOfKind.size(), String.join("\n", statements))
+                .isLessThanOrEqualTo(limit);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2026 michael-simons.eu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.simplemeetup.support;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records every round trip to the database. The data source of the application context is wrapped, so that each
+ * execution of a statement is recorded with its SQL, no matter whether it has been issued by Hibernate, Spring Data or
+ * a {@code JdbcTemplate}. A batch is recorded once, as it is sent in one round trip.
+ * <p>
+ * Import this class into an integration test to enable it. Budgets for the recorded statements are asserted through
+ * {@link StatementBudget}.
+ *
+ * @author Michael J. Simons, 2026-10-18
+ */
+public final class StatementCounter implements BeanPostProcessor {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    private static final Set<String> EXECUTING_METHODS = new HashSet<>(Arrays.asList(
+        "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch"));
+
+    public static void reset() {
+        STATEMENTS.clear();
+    }
+
+    /**
+     * @param prefix The beginning of a statement, i.e. {@literal insert into registrations}
+     * @return The number of recorded statements starting with the given prefix
+     */
+    public static long count(final String prefix) {
+        final String normalizedPrefix = prefix.toLowerCase(Locale.ENGLISH);
+        return getStatements().stream()
+            .filter(statement -> statement.startsWith(normalizedPrefix))
+            .count();
+    }
+
+    /**
+     * @return All statements recorded since the last reset, trimmed and in lower case
+     */
+    static List<String> getStatements() {
+        final List<String> statements = new ArrayList<>();
+        STATEMENTS.forEach(statement -> statements.add(statement.trim().toLowerCase(Locale.ENGLISH)));
+        return Collections.unmodifiableList(statements);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+        if (bean instanceof DataSource && !(bean instanceof CountingDataSource)) {
+            return new CountingDataSource((DataSource) bean);
+        }
+        return bean;
+    }
+
+    private static final class CountingDataSource extends DelegatingDataSource {
+
+        CountingDataSource(final DataSource targetDataSource) {
+            super(targetDataSource);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return counting(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(final String username, final String password) throws SQLException {
+            return counting(super.getConnection(username, password));
+        }
+
+        private static Connection counting(final Connection target) {
+            return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(),
+                new Class<?>[]{ConnectionProxy.class}, new CountingInvocationHandler(target, null));
+        }
+    }
+
+    /**
+     * Handles both connections and statements: Statements created by a connection are wrapped as well and remember
+     * the SQL they have been prepared with.
+     */
+    private static final class CountingInvocationHandler implements InvocationHandler {
+
+        private final Object target;
+
+        private final String sql;
+
+        private String batchedSql;
+
+        CountingInvocationHandler(final Object target, final String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "getTargetConnection":
+                    return this.target;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "addBatch":
+                    if (this.batchedSql == null && args != null && args[0] instanceof String) {
+                        this.batchedSql = (String) args[0];
+                    }
+                    break;
+                default:
+                    break;
+            }
+
+            if (EXECUTING_METHODS.contains(method.getName())) {
+                if (args != null && args.length > 0 && args[0] instanceof String) {
+                    STATEMENTS.add((String) args[0]);
+                } else {
+                    STATEMENTS.add(this.sql == null ? String.valueOf(this.batchedSql) : this.sql);
+                    this.batchedSql = null;
+                }
+            }
+
+            final Object result;
+            try {
+                result = method.invoke(this.target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+
+            if (result instanceof Statement && method.getReturnType().isInterface()) {
+                return Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(),
+                    new Class<?>[]{method.getReturnType()},
+                    new CountingInvocationHandler(result, args != null && args.length > 0 && args[0] instanceof String
+                        ? (String) args[0] : null));
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2026 michael-simons.eu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.simplemeetup.app;
+
+import ac.simons.simplemeetup.domain.Event;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.support.MessageSourceAccessor;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.hateoas.Resources;
+import org.springframework.hateoas.core.AnnotationRelProvider;
+import org.springframework.hateoas.hal.Jackson2HalModule;
+import org.springframework.hateoas.hal.Jackson2HalModule.HalHandlerInstantiator;
+import org.springframework.hateoas.mvc.ResourceAssemblerSupport;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Assembles lists of events into HAL resources and serializes them as the events endpoint does. The links are
+ * build against a mocked request bound to the benchmark thread.
+ *
+ * @author Michael J. Simons, 2026-10-18
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EventResourceBenchmark {
+
+    @Param({"1", "20", "100"})
+    private int numberOfEvents;
+
+    private ResourceAssemblerSupport<Event, EventResource> eventResourceAssembler;
+
+    private ObjectMapper objectMapper;
+
+    private List<Event> events;
+
+    private Resources<EventResource> resources;
+
+    @Setup
+    public void prepareResources() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        this.eventResourceAssembler = EventResource.assembler();
+        this.objectMapper = Jackson2ObjectMapperBuilder.json()
+            .modulesToInstall(new EventsModule(), new Jackson2HalModule())
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .handlerInstantiator(new HalHandlerInstantiator(new AnnotationRelProvider(), null,
+                new MessageSourceAccessor(new StaticMessageSource())))
+            .build();
+
+        final LocalDate heldOn = LocalDate.now().plusDays(1);
+        this.events = IntStream.range(0, this.numberOfEvents)
+            .mapToObj(i -> new Event(heldOn, "Event " + i))
+            .collect(Collectors.toList());
+        this.resources = new Resources<>(this.eventResourceAssembler.toResources(this.events));
+    }
+
+    @TearDown
+    public void resetRequestAttributes() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public List<EventResource> assembleResources() {
+        return this.eventResourceAssembler.toResources(this.events);
+    }
+
+    @Benchmark
+    public String serializeResources() throws JsonProcessingException {
+        return this.objectMapper.writeValueAsString(this.resources);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2026 michael-simons.eu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.simplemeetup.domain;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Registers a batch of new attendees for events that already have a varying number of attendees. The seats are claimed
+ * the same way as by the {@link EventService}, checking for existing registrations through a set that stands in for
+ * the unique index on registrations. Registering changes the event, so each iteration starts with a fresh event and
+ * measures a whole batch.
+ *
+ * @author Michael J. Simons, 2026-10-18
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, batchSize = EventBenchmark.BATCH_SIZE)
+@Measurement(iterations = 20, batchSize = EventBenchmark.BATCH_SIZE)
+public class EventBenchmark {
+
+    static final int BATCH_SIZE = 1_000;
+
+    @Param({"0", "1000", "100000"})
+    private int numberOfAttendees;
+
+    private Event event;
+
+    private Set<Registration> registrations;
+
+    private Person[] newAttendees;
+
+    private int nextAttendee;
+
+    @Setup(Level.Iteration)
+    public void prepareEvent() {
+        this.event = new Event(LocalDate.now().plusDays(1), "Benchmark", Integer.MAX_VALUE);
+        this.registrations = new HashSet<>();
+        IntStream.range(0, this.numberOfAttendees)
+            .mapToObj(EventBenchmark::attendee)
+            .forEach(this::register);
+        this.newAttendees = IntStream.range(this.numberOfAttendees, this.numberOfAttendees + BATCH_SIZE)
+            .mapToObj(EventBenchmark::attendee)
+            .toArray(Person[]::new);
+        this.nextAttendee = 0;
+    }
+
+    @Benchmark
+    public Registration register() {
+        return register(this.newAttendees[this.nextAttendee++]);
+    }
+
+    private Registration register(final Person person) {
+        final Registration registration = this.event.claimSeatFor(person, this.registrations::contains);
+        this.registrations.add(registration);
+        return registration;
+    }
+
+    private static Person attendee(final int i) {
+        return new Person("attendee" + i + "@example.com", "Attendee " + i);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2026 michael-simons.eu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.simplemeetup.domain;
+
+import ac.simons.simplemeetup.Application;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Example;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Looks up single events against the embedded database, through the cache of the service as well as directly through
+ * the repository.
+ *
+ * @author Michael J. Simons, 2026-10-18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EventServiceBenchmark {
+
+    private static final int NUMBER_OF_EVENTS = 1_000;
+
+    private ConfigurableApplicationContext applicationContext;
+
+    private EventService eventService;
+
+    private EventRepository eventRepository;
+
+    private Event event;
+
+    private Example<Event> eventExample;
+
+    @Setup
+    public void startApplication() {
+        this.applicationContext = new SpringApplicationBuilder(Application.class)
+            .web(WebApplicationType.NONE)
+            .properties("spring.datasource.generate-unique-name=true", "logging.level.root=warn")
+            .run();
+        this.eventService = this.applicationContext.getBean(EventService.class);
+        this.eventRepository = this.applicationContext.getBean(EventRepository.class);
+
+        final LocalDate heldOn = LocalDate.now().plusDays(1);
+        IntStream.range(0, NUMBER_OF_EVENTS)
+            .mapToObj(i -> new Event(heldOn, "Event " + i))
+            .forEach(this.eventService::createNewEvent);
+        this.event = new Event(heldOn, "Event " + NUMBER_OF_EVENTS / 2);
+        this.eventExample = this.event.asExample();
+    }
+
+    @TearDown
+    public void stopApplication() {
+        this.applicationContext.close();
+    }
+
+    @Benchmark
+    public Optional<Event> getEvent() {
+        return this.eventService.getEvent(this.event.getHeldOn(), this.event.getName());
+    }
+
+    @Benchmark
+    public Optional<Event> findOneByHeldOnAndName() {
+        return this.eventRepository.findOneByHeldOnAndName(this.event.getHeldOn(), this.event.getName());
+    }
+
+    @Benchmark
+    public Optional<Event> findOneByExample() {
+        return this.eventRepository.findOne(this.eventExample);
+    }
+}
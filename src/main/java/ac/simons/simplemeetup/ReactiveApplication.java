@@ -0,0 +1,39 @@
+/*
+ * Copyright 2026 michael-simons.eu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.simplemeetup;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+/**
+ * Starts the {@link Application} as a reactive web application with the {@literal reactive} profile, serving the read
+ * endpoints through {@link ac.simons.simplemeetup.app.ReactiveEventsApi}. The type of the application must be known
+ * before the environment is created, so it cannot be switched through a profile specific property.
+ *
+ * @author Michael J. Simons, 2026-10-18
+ */
+public final class ReactiveApplication {
+
+    private ReactiveApplication() {
+    }
+
+    public static void main(final String[] args) {
+        new SpringApplicationBuilder(Application.class)
+            .web(WebApplicationType.REACTIVE)
+            .profiles("reactive")
+            .run(args);
+    }
+}
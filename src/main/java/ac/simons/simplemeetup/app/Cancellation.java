@@ -0,0 +1,42 @@
+/*
+ * Copyright 2026 michael-simons.eu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.simplemeetup.app;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * The request to cancel a registration. The email is sent in the body, so that it doesn't end up in the access logs
+ * like a path or a query parameter would.
+ *
+ * @author Michael J. Simons, 2026-10-18
+ */
+final class Cancellation {
+
+    private final String email;
+
+    @JsonCreator
+    Cancellation(@JsonProperty("email") final String email) {
+        if (email == null || email.trim().isEmpty()) {
+            throw new IllegalArgumentException("Cancellation requires a non-empty email-address.");
+        }
+        this.email = email;
+    }
+
+    String getEmail() {
+        return email;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2026 michael-simons.eu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.simplemeetup.app;
+
+import ac.simons.simplemeetup.domain.Event;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * An opaque position in the list of events, pointing to the {@code (heldOn, name)}-key of an event. It is rendered
+ * URL safe and converted back from request parameters through {@link #valueOf(String)}.
+ *
+ * @author Michael J. Simons, 2026-10-18
+ */
+public final class EventCursor {
+
+    private final LocalDate heldOn;
+
+    private final String name;
+
+    private EventCursor(final LocalDate heldOn, final String name) {
+        this.heldOn = heldOn;
+        this.name = name;
+    }
+
+    static EventCursor of(final Event event) {
+        return new EventCursor(event.getHeldOn(), event.getName());
+    }
+
+    /**
+     * @param value An encoded cursor
+     * @return The decoded cursor
+     * @throws IllegalArgumentException if the value isn't a valid cursor
+     */
+    public static EventCursor valueOf(final String value) {
+        final String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+        final int separator = decoded.indexOf(',');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Invalid cursor: " + value);
+        }
+        try {
+            return new EventCursor(LocalDate.parse(decoded.substring(0, separator)), decoded.substring(separator + 1));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + value, e);
+        }
+    }
+
+    LocalDate getHeldOn() {
+        return heldOn;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString((this.heldOn + "," + this.name).getBytes(StandardCharsets.UTF_8));
+    }
+}
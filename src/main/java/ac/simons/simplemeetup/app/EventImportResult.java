@@ -0,0 +1,79 @@
+/*
+ * Copyright 2026 michael-simons.eu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.simplemeetup.app;
+
+import ac.simons.simplemeetup.domain.Event;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import lombok.Getter;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.ResourceSupport;
+import org.springframework.hateoas.core.Relation;
+
+import java.time.LocalDate;
+
+/**
+ * The result of importing a single event, reported at the position of the item in the import.
+ *
+ * @author Michael J. Simons, 2026-10-18
+ */
+@Relation(value = "result", collectionRelation = "results")
+@JsonInclude(Include.NON_NULL)
+@Getter
+public final class EventImportResult extends ResourceSupport {
+
+    /**
+     * The outcomes of importing an event.
+     */
+    public enum Status {
+        created, duplicate, invalid
+    }
+
+    private final int index;
+
+    private final Status status;
+
+    private final LocalDate heldOn;
+
+    private final String name;
+
+    private final String message;
+
+    private EventImportResult(
+        final int index, final Status status, final LocalDate heldOn, final String name, final String message
+    ) {
+        this.index = index;
+        this.status = status;
+        this.heldOn = heldOn;
+        this.name = name;
+        this.message = message;
+    }
+
+    static EventImportResult created(final int index, final Event event, final Link link) {
+        final EventImportResult result
+            = new EventImportResult(index, Status.created, event.getHeldOn(), event.getName(), null);
+        result.add(link);
+        return result;
+    }
+
+    static EventImportResult duplicate(final int index, final Event event) {
+        return new EventImportResult(index, Status.duplicate, event.getHeldOn(), event.getName(), null);
+    }
+
+    static EventImportResult invalid(final int index, final String message) {
+        return new EventImportResult(index, Status.invalid, null, null, message);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2026 michael-simons.eu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.simplemeetup.app;
+
+import ac.simons.simplemeetup.domain.Event;
+import org.springframework.hateoas.Link;
+import org.springframework.web.util.UriUtils;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
+
+/**
+ * Builds links to events and their registrations by expanding the fixed URI templates {@code /{heldOn}/{name}} and
+ * {@code /{heldOn}/{name}/registrations} of the {@link EventsApi} directly. Only the base URI of the {@link EventsApi}
+ * is derived from the current request, once per instance, instead of proxying and introspecting a method invocation
+ * for every single link. The links are the same as those created through {@code linkTo(methodOn(EventsApi.class)...)}.
+ *
+ * @author Michael J. Simons, 2026-10-18
+ */
+final class EventLinks {
+
+    private static final String REGISTRATIONS = "/registrations";
+
+    private final String baseUri;
+
+    private EventLinks(final String baseUri) {
+        this.baseUri = baseUri;
+    }
+
+    /**
+     * @return Links relative to the {@link EventsApi} as seen from the current request
+     */
+    static EventLinks forCurrentRequest() {
+        return new EventLinks(linkTo(EventsApi.class).toString());
+    }
+
+    /**
+     * @param event
+     * @param rel
+     * @return A link to the given event
+     */
+    Link linkToEvent(final Event event, final String rel) {
+        return new Link(uriOf(event), rel);
+    }
+
+    /**
+     * @param event
+     * @param rel
+     * @return A link to the registrations of the given event
+     */
+    Link linkToRegistrations(final Event event, final String rel) {
+        return new Link(uriOf(event) + REGISTRATIONS, rel);
+    }
+
+    private String uriOf(final Event event) {
+        return this.baseUri + '/' + event.getHeldOn() + '/' + UriUtils.encodePath(event.getName(), StandardCharsets.UTF_8);
+    }
+}
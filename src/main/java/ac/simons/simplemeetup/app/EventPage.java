@@ -0,0 +1,103 @@
+/*
+ * Copyright 2026 michael-simons.eu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.simplemeetup.app;
+
+import ac.simons.simplemeetup.domain.Event;
+import ac.simons.simplemeetup.domain.EventService;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * One page of open events together with the cursors of its neighbouring pages. Pages are addressed through a cursor on
+ * the {@code (heldOn, name)}-key of the first or last event of the neighbouring page, not through an offset, so that
+ * the costs of each page are the same. One more event than requested is selected to find out whether there are more.
+ *
+ * @author Michael J. Simons, 2026-10-18
+ */
+final class EventPage {
+
+    private final int size;
+
+    private final List<Event> events;
+
+    private final EventCursor next;
+
+    private final EventCursor previous;
+
+    private EventPage(final int size, final List<Event> events, final EventCursor next, final EventCursor previous) {
+        this.size = size;
+        this.events = events;
+        this.next = next;
+        this.previous = previous;
+    }
+
+    /**
+     * @param eventService The service to select the events from
+     * @param size         Requested page size, capped at {@link EventsApi#MAX_PAGE_SIZE}
+     * @param after        Optional cursor to start after
+     * @param before       Optional cursor to end before
+     * @return The requested page
+     */
+    static EventPage of(
+        final EventService eventService, final int size, final EventCursor after, final EventCursor before
+    ) {
+        final int limit = Math.max(1, Math.min(size, EventsApi.MAX_PAGE_SIZE));
+        final List<Event> events;
+        if (before != null) {
+            events = new ArrayList<>(eventService.getOpenEventsBefore(before.getHeldOn(), before.getName(), limit + 1));
+        } else if (after != null) {
+            events = new ArrayList<>(eventService.getOpenEventsAfter(after.getHeldOn(), after.getName(), limit + 1));
+        } else {
+            events = new ArrayList<>(eventService.getOpenEvents(limit + 1));
+        }
+
+        final boolean hasMore = events.size() > limit;
+        if (hasMore) {
+            events.remove(before == null ? events.size() - 1 : 0);
+        }
+
+        EventCursor next = null;
+        EventCursor previous = null;
+        if (!events.isEmpty()) {
+            if (before != null || hasMore) {
+                next = EventCursor.of(events.get(events.size() - 1));
+            }
+            if (after != null || before != null && hasMore) {
+                previous = EventCursor.of(events.get(0));
+            }
+        }
+        return new EventPage(limit, Collections.unmodifiableList(events), next, previous);
+    }
+
+    int getSize() {
+        return size;
+    }
+
+    List<Event> getEvents() {
+        return events;
+    }
+
+    Optional<EventCursor> getNext() {
+        return Optional.ofNullable(next);
+    }
+
+    Optional<EventCursor> getPrevious() {
+        return Optional.ofNullable(previous);
+    }
+}
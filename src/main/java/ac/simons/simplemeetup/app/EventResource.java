@@ -17,13 +17,13 @@ package ac.simons.simplemeetup.app;
 
 import ac.simons.simplemeetup.domain.Event;
 import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import org.springframework.hateoas.Link;
 import org.springframework.hateoas.ResourceSupport;
 import org.springframework.hateoas.core.Relation;
-import org.springframework.hateoas.mvc.ControllerLinkBuilder;
 import org.springframework.hateoas.mvc.ResourceAssemblerSupport;
 
-import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
-import static org.springframework.hateoas.mvc.ControllerLinkBuilder.methodOn;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * @author Michael J. Simons, 2017-11-03
@@ -33,19 +33,30 @@ public class EventResource extends ResourceSupport {
 
     static ResourceAssemblerSupport<Event, EventResource> assembler() {
         return new ResourceAssemblerSupport<Event, EventResource>(EventsApi.class, EventResource.class) {
+            @Override
+            public List<EventResource> toResources(final Iterable<? extends Event> entities) {
+                final EventLinks eventLinks = EventLinks.forCurrentRequest();
+                final List<EventResource> resources = new ArrayList<>();
+                for (final Event entity : entities) {
+                    resources.add(assemble(entity, eventLinks));
+                }
+                return resources;
+            }
+
             @Override
             public EventResource toResource(final Event entity) {
-                final EventResource resource = new EventResource(entity);
-                final ControllerLinkBuilder linkBuilder =
-                    linkTo(methodOn(EventsApi.class).event(entity.getHeldOn(), entity.getName()));
-                resource.add(linkBuilder.withSelfRel());
-                resource.add(linkTo(methodOn(EventsApi.class).registrations(entity.getHeldOn(), entity.getName()))
-                    .withRel("registrations"));
-                return resource;
+                return assemble(entity, EventLinks.forCurrentRequest());
             }
         };
     }
 
+    private static EventResource assemble(final Event event, final EventLinks eventLinks) {
+        final EventResource resource = new EventResource(event);
+        resource.add(eventLinks.linkToEvent(event, Link.REL_SELF));
+        resource.add(eventLinks.linkToRegistrations(event, "registrations"));
+        return resource;
+    }
+
     @JsonUnwrapped
     private final Event event;
 
@@ -15,32 +15,62 @@
  */
 package ac.simons.simplemeetup.app;
 
+import ac.simons.simplemeetup.domain.ConcurrentEventCreationException;
 import ac.simons.simplemeetup.domain.Event;
 import ac.simons.simplemeetup.domain.EventService;
 import ac.simons.simplemeetup.domain.NoSuchEventException;
 import ac.simons.simplemeetup.domain.Person;
 import ac.simons.simplemeetup.domain.Registration;
+import ac.simons.simplemeetup.domain.RegistrationGroupCommit;
+import ac.simons.simplemeetup.domain.RegistrationIntake;
+import ac.simons.simplemeetup.domain.RegistrationOutcome;
+import ac.simons.simplemeetup.domain.RegistrationRequest;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.NestedExceptionUtils;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.format.annotation.DateTimeFormat.ISO;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.Resources;
 import org.springframework.hateoas.mvc.ResourceAssemblerSupport;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
 
 import static org.springframework.hateoas.mvc.ControllerLinkBuilder.afford;
-import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
 import static org.springframework.hateoas.mvc.ControllerLinkBuilder.methodOn;
 
 /**
@@ -50,25 +80,82 @@ import static org.springframework.hateoas.mvc.ControllerLinkBuilder.methodOn;
 @RestController // <1>
 @RequestMapping("/api/events") // <2>
 // end::domain-usage-single-event[]
+@Profile("!reactive")
 @SuppressWarnings({"checkstyle:DesignForExtension"})
 // tag::domain-usage-single-event[]
 public class EventsApi {
 
+    // end::domain-usage-single-event[]
+    static final int MAX_PAGE_SIZE = 100;
+
+    static final int MAX_IMPORT_SIZE = 1_000;
+
+    static final String STREAM_ENTITY_TAG_SUFFIX = "-stream";
+
+    // tag::domain-usage-single-event[]
     private final EventService eventService;
 
     // end::domain-usage-single-event[]
 
+    private final ObjectMapper objectMapper;
+
     private final ResourceAssemblerSupport<Event, EventResource> eventResourceAssembler;
 
-    public EventsApi(final EventService eventService) {
+    private final RegistrationGroupCommit registrationGroupCommit;
+
+    /**
+     * Only present with the {@literal registration-intake} profile.
+     */
+    private final RegistrationIntake registrationIntake;
+
+    public EventsApi(
+        final EventService eventService,
+        final ObjectMapper objectMapper,
+        final RegistrationGroupCommit registrationGroupCommit,
+        final Optional<RegistrationIntake> registrationIntake
+    ) {
         this.eventService = eventService;
+        this.objectMapper = objectMapper;
+        this.registrationGroupCommit = registrationGroupCommit;
+        this.registrationIntake = registrationIntake.orElse(null);
         this.eventResourceAssembler = EventResource.assembler();
     }
 
+    /**
+     * Returns one page of open events, see {@link EventPage} for how pages are addressed.
+     *
+     * @param size   Requested page size, capped at {@link #MAX_PAGE_SIZE}
+     * @param after  Optional cursor to start after
+     * @param before Optional cursor to end before
+     * @return A page of open events with links to the next and previous pages
+     */
     @GetMapping
-    public Resources<EventResource> events() {
-        final List<EventResource> eventResources = eventResourceAssembler.toResources(this.eventService.getOpenEvents());
-        return new Resources<>(eventResources, linkTo(methodOn(this.getClass()).events()).withSelfRel());
+    public Resources<EventResource> events(
+        @RequestParam(defaultValue = "20") final int size,
+        @RequestParam(required = false) final EventCursor after,
+        @RequestParam(required = false) final EventCursor before
+    ) {
+        final EventPage page = EventPage.of(this.eventService, size, after, before);
+
+        final List<Link> links = new ArrayList<>();
+        links.add(new Link(pageUri(page.getSize(), after, before)));
+        page.getNext()
+            .ifPresent(next -> links.add(new Link(pageUri(page.getSize(), next, null), Link.REL_NEXT)));
+        page.getPrevious()
+            .ifPresent(previous -> links.add(new Link(pageUri(page.getSize(), null, previous), Link.REL_PREVIOUS)));
+        return new Resources<>(eventResourceAssembler.toResources(page.getEvents()), links);
+    }
+
+    private static String pageUri(final int size, final EventCursor after, final EventCursor before) {
+        final ServletUriComponentsBuilder builder = ServletUriComponentsBuilder.fromCurrentRequestUri();
+        builder.queryParam("size", size);
+        if (after != null) {
+            builder.queryParam("after", after);
+        }
+        if (before != null) {
+            builder.queryParam("before", before);
+        }
+        return builder.toUriString();
     }
 
     @PostMapping
@@ -79,49 +166,268 @@ public class EventsApi {
             URI.create(eventResource.getId().map(Link::getHref).orElseThrow(InvalidResourceException::new))).body(eventResource);
     }
 
+    /**
+     * Imports many events at once. Each item is validated on its own, so that invalid items don't prevent the other
+     * events from being created. The result contains the outcome for each item at its position. An import racing
+     * with another creator of the same events is retried once.
+     *
+     * @param newEvents The events to import, at most {@link #MAX_IMPORT_SIZE}
+     * @return The outcome for each item
+     */
+    @PostMapping("/import")
+    public Resources<EventImportResult> importEvents(@RequestBody final List<JsonNode> newEvents) {
+        final EventImportResult[] results = new EventImportResult[newEvents.size()];
+        final Map<Integer, Event> validEvents
+            = readItems(newEvents, Event.class, (i, message) -> results[i] = EventImportResult.invalid(i, message));
+
+        final Set<Event> createdEvents = new HashSet<>(createNewEvents(new ArrayList<>(validEvents.values())));
+        final EventLinks eventLinks = EventLinks.forCurrentRequest();
+        validEvents.forEach((i, event) ->
+            // Only the first of several equal events has been created
+            results[i] = createdEvents.remove(event)
+                ? EventImportResult.created(i, event, eventLinks.linkToEvent(event, Link.REL_SELF))
+                : EventImportResult.duplicate(i, event)
+        );
+        return new Resources<>(Arrays.asList(results),
+            new Link(ServletUriComponentsBuilder.fromCurrentRequestUri().toUriString()));
+    }
+
+    /**
+     * Creates the events and retries once if some of them have been created concurrently. The second attempt runs in a
+     * new transaction and sees those events as existing, so that they are reported as duplicates.
+     *
+     * @param newEvents The events to create
+     * @return The events that have actually been created
+     */
+    private List<Event> createNewEvents(final List<Event> newEvents) {
+        try {
+            return this.eventService.createNewEvents(newEvents);
+        } catch (ConcurrentEventCreationException e) {
+            return this.eventService.createNewEvents(newEvents);
+        }
+    }
+
+    /**
+     * Reads each item of an import on its own, so that invalid items can be reported without failing the whole import.
+     *
+     * @param items        The items to read, at most {@link #MAX_IMPORT_SIZE}
+     * @param type         The type to read the items as
+     * @param invalidItems Receives the index and the reason of each invalid item
+     * @param <T>          The type of the items
+     * @return The valid items by their index, in order
+     */
+    private <T> Map<Integer, T> readItems(
+        final List<JsonNode> items, final Class<T> type, final BiConsumer<Integer, String> invalidItems
+    ) {
+        if (items.size() > MAX_IMPORT_SIZE) {
+            throw new ImportTooLargeException(MAX_IMPORT_SIZE);
+        }
+
+        final Map<Integer, T> validItems = new LinkedHashMap<>();
+        for (int i = 0; i < items.size(); ++i) {
+            try {
+                final T item = this.objectMapper.treeToValue(items.get(i), type);
+                if (item == null) {
+                    invalidItems.accept(i, "Missing item.");
+                } else {
+                    validItems.put(i, item);
+                }
+            } catch (JsonProcessingException e) {
+                invalidItems.accept(i, NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            }
+        }
+        return validItems;
+    }
+
     // tag::domain-usage-single-event[]
     @GetMapping("/{heldOn}/{name}") // <3>
     public EventResource event(
         @PathVariable @DateTimeFormat(iso = ISO.DATE) // <4>
         final LocalDate heldOn,
-        @PathVariable final String name
+        @PathVariable final String name,
+        final WebRequest request
     ) {
-        return this.eventService
+        final Event event = this.eventService
             .getEvent(heldOn, name)
-            .map(eventResourceAssembler::toResource)
             .orElseThrow(NoSuchEventException::new);
+        if (request.checkNotModified(entityTagOf(event))) {
+            return null;
+        }
+        return eventResourceAssembler.toResource(event);
     }
     // end::domain-usage-single-event[]
 
     @GetMapping("/{heldOn}/{name}/registrations")
     public Resources<RegistrationResource> registrations(
         @PathVariable @DateTimeFormat(iso = ISO.DATE) final LocalDate heldOn,
-        @PathVariable final String name
+        @PathVariable final String name,
+        final WebRequest request,
+        final HttpServletResponse response
     ) {
         final Event event = this.eventService
             .getEvent(heldOn, name)
             .orElseThrow(NoSuchEventException::new);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (request.checkNotModified(entityTagOf(event))) {
+            return null;
+        }
         final ResourceAssemblerSupport<Registration, RegistrationResource> resourceAssembler
             = RegistrationResource.assembler(event);
         return new Resources<>(
-            resourceAssembler.toResources(event.getRegistrations()),
-            linkTo(methodOn(this.getClass()).registrations(event.getHeldOn(), event.getName()))
-                .withSelfRel()
+            resourceAssembler.toResources(this.eventService.getRegistrations(event)),
+            EventLinks.forCurrentRequest().linkToRegistrations(event, Link.REL_SELF)
                 .andAffordance(afford(methodOn(EventsApi.class).registerFor(event.getHeldOn(), event.getName(), null)))
         );
     }
 
+    /**
+     * Streams the registrations of an event as a sequence of JSON documents, one per line. The registrations are
+     * written as they are read from the database, without assembling resources, so the memory needed doesn't depend
+     * on the number of registrations.
+     *
+     * @param heldOn
+     * @param name
+     * @param request
+     * @param response
+     * @return A body writing the registrations of the given event
+     */
+    @GetMapping(value = "/{heldOn}/{name}/registrations", produces = MediaType.APPLICATION_STREAM_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamRegistrations(
+        @PathVariable @DateTimeFormat(iso = ISO.DATE) final LocalDate heldOn,
+        @PathVariable final String name,
+        final WebRequest request,
+        final HttpServletResponse response
+    ) {
+        final Event event = this.eventService
+            .getEvent(heldOn, name)
+            .orElseThrow(NoSuchEventException::new);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (request.checkNotModified(entityTagOf(event) + STREAM_ENTITY_TAG_SUFFIX)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_STREAM_JSON)
+            .body(outputStream -> {
+                try (
+                    JsonGenerator generator = this.objectMapper.getFactory().createGenerator(outputStream)
+                        .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                    SequenceWriter registrations = this.objectMapper.writerFor(Registration.class)
+                        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                        .withRootValueSeparator("\n")
+                        .writeValues(generator)
+                ) {
+                    this.eventService.streamRegistrations(event, registration -> {
+                        try {
+                            registrations.write(registration);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                }
+            });
+    }
+
+    /**
+     * Registers many persons at once for an event. Persons are registered in the given order until the event is full.
+     *
+     * @param heldOn
+     * @param name
+     * @param persons The persons to register, at most {@link #MAX_IMPORT_SIZE}
+     * @return The outcome for each item
+     */
+    @PostMapping("/{heldOn}/{name}/registrations/import")
+    public Resources<RegistrationImportResult> importRegistrations(
+        @PathVariable @DateTimeFormat(iso = ISO.DATE) final LocalDate heldOn,
+        @PathVariable final String name,
+        @RequestBody final List<JsonNode> persons
+    ) {
+        final RegistrationImportResult[] results = new RegistrationImportResult[persons.size()];
+        final Map<Integer, Person> validPersons = readItems(persons, Person.class,
+            (i, message) -> results[i] = RegistrationImportResult.invalid(i, message));
+
+        final Event event = new Event(heldOn, name);
+        final Iterator<RegistrationOutcome> outcomes
+            = this.eventService.registerAll(event, new ArrayList<>(validPersons.values())).iterator();
+        validPersons.keySet().forEach(i -> results[i] = RegistrationImportResult.of(i, outcomes.next()));
+        return new Resources<>(Arrays.asList(results),
+            new Link(ServletUriComponentsBuilder.fromCurrentRequestUri().toUriString()),
+            EventLinks.forCurrentRequest().linkToRegistrations(event, "registrations"));
+    }
+
+    /**
+     * Both the representation of an event and the list of its registrations only change with the status, the number
+     * of seats, the number of registrations or the number of cancellations of the event, so those make up a strong
+     * entity tag for both of them. The number of cancellations is needed, as a promotion from the waitlist replaces a
+     * registration without changing their number. The tag can be checked against a cached event without loading any
+     * registration.
+     * <p>
+     * The registrations are also available as a stream of JSON documents under the same URI. That representation
+     * is tagged with {@link #STREAM_ENTITY_TAG_SUFFIX} appended, so that a tag never matches the other representation,
+     * and both representations vary by the {@literal Accept} header.
+     *
+     * @param event
+     * @return An entity tag for the representations of the given event
+     */
+    static String entityTagOf(final Event event) {
+        return String.format("%s-%d-%d-%d", event.getStatus(), event.getNumberOfSeats(),
+            event.getNumberOfRegistrations(), event.getNumberOfCancellations());
+    }
+
+    /**
+     * Registers a person for an event. If the event is full, the person is put on the waitlist instead and will be
+     * registered when a seat becomes free, which is acknowledged with {@literal 202 Accepted}. Concurrent
+     * registrations for the same event are written together, see {@link RegistrationGroupCommit}.
+     * <p>
+     * With the {@literal registration-intake} profile, the registration is only queued and acknowledged with
+     * {@literal 202 Accepted} as well, pointing to the status of the request. Full events don't have a waitlist then.
+     *
+     * @param heldOn
+     * @param name
+     * @param person The person to register
+     * @return The registration, either created or accepted, or the status of the queued request
+     */
     @PostMapping("/{heldOn}/{name}/registrations")
-    public HttpEntity<Registration> registerFor(
+    public HttpEntity<?> registerFor(
         @PathVariable @DateTimeFormat(iso = ISO.DATE) final LocalDate heldOn,
         @PathVariable final String name,
         @RequestBody final Person person
     ) {
+        if (this.registrationIntake != null) {
+            final Event event = this.eventService
+                .getEvent(heldOn, name)
+                .orElseThrow(NoSuchEventException::new);
+            final RegistrationRequest request = this.registrationIntake.submit(event, person);
+            final RegistrationRequestResource resource = RegistrationRequestResource.of(request);
+            return ResponseEntity.accepted().location(
+                URI.create(resource.getId().map(Link::getHref).orElseThrow(InvalidResourceException::new))).body(resource);
+        }
+        final RegistrationOutcome outcome
+            = this.registrationGroupCommit.registerOrWaitlist(new Event(heldOn, name), person);
         return new ResponseEntity<>(
-            this.eventService.registerFor(new Event(heldOn, name), person),
-            HttpStatus.CREATED
+            new Registration(person),
+            outcome == RegistrationOutcome.waitlisted ? HttpStatus.ACCEPTED : HttpStatus.CREATED
         );
     }
+
+    /**
+     * Cancels a registration or removes a person from the waitlist. A cancelled seat goes to the first person on the
+     * waitlist. Cancellations are not authenticated, anyone knowing the email of a person can cancel the registration.
+     * The email is taken from the body and not from the path, so that it doesn't end up in access logs.
+     *
+     * @param heldOn
+     * @param name
+     * @param cancellation Contains the email the person has registered with
+     * @return An empty response
+     */
+    @PostMapping("/{heldOn}/{name}/cancellations")
+    public ResponseEntity<Void> cancelRegistration(
+        @PathVariable @DateTimeFormat(iso = ISO.DATE) final LocalDate heldOn,
+        @PathVariable final String name,
+        @RequestBody final Cancellation cancellation
+    ) {
+        this.eventService.cancelRegistration(new Event(heldOn, name), cancellation.getEmail());
+        return ResponseEntity.noContent().build();
+    }
     // tag::domain-usage-single-event[]
 }
 // end::domain-usage-single-event[]
@@ -29,6 +29,7 @@ import com.fasterxml.jackson.databind.util.NameTransformer;
 
 import java.io.IOException;
 import java.time.LocalDate;
+import java.util.Arrays;
 
 import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.NONE;
 
@@ -81,14 +82,49 @@ public final class EventsModule extends SimpleModule {
     static class UnwrappingRegistrationSerializer extends JsonSerializer<Registration> {
         // end::json-serializer-contract[]
 
+        private static final int NUMBER_OF_VISIBLE_CHARACTERS = 3;
+
         private final NameTransformer nameTransformer;
 
         UnwrappingRegistrationSerializer(final NameTransformer nameTransformer) {
             this.nameTransformer = nameTransformer;
         }
 
-        String hideEmail(final String email) {
-            return email.replaceAll("(^[^@]{3}|(?!^)\\G)[^@]", "$1*");
+        /**
+         * Keeps the first three characters of the local part of an email address and replaces every following
+         * character of the local part with a {@literal *}. Local parts with three or less characters are not masked
+         * at all. Characters outside the BMP count as one character.
+         * <p>
+         * This is the same as replacing {@code (^[^@]{3}|(?!^)\G)[^@]} with {@code $1*}, but without compiling a
+         * pattern and allocating a matcher for each email.
+         *
+         * @param email The email to mask
+         * @return The masked email
+         */
+        static String hideEmail(final String email) {
+            final int length = email.length();
+            int visiblePartEnd = 0;
+            for (int i = 0; i < NUMBER_OF_VISIBLE_CHARACTERS; ++i) {
+                if (visiblePartEnd == length || email.charAt(visiblePartEnd) == '@') {
+                    return email;
+                }
+                visiblePartEnd += Character.charCount(email.codePointAt(visiblePartEnd));
+            }
+
+            int localPartEnd = email.indexOf('@', visiblePartEnd);
+            if (localPartEnd < 0) {
+                localPartEnd = length;
+            }
+            if (localPartEnd == visiblePartEnd) {
+                return email;
+            }
+
+            final int numberOfHiddenCharacters = email.codePointCount(visiblePartEnd, localPartEnd);
+            final char[] hiddenEmail = new char[length - (localPartEnd - visiblePartEnd) + numberOfHiddenCharacters];
+            email.getChars(0, visiblePartEnd, hiddenEmail, 0);
+            Arrays.fill(hiddenEmail, visiblePartEnd, visiblePartEnd + numberOfHiddenCharacters, '*');
+            email.getChars(localPartEnd, length, hiddenEmail, visiblePartEnd + numberOfHiddenCharacters);
+            return new String(hiddenEmail);
         }
 
         // tag::json-serializer-contract-unwrapping[]
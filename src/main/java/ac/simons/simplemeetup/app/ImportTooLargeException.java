@@ -0,0 +1,34 @@
+/*
+ * Copyright 2026 michael-simons.eu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.simplemeetup.app;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when more items than allowed are imported at once.
+ *
+ * @author Michael J. Simons, 2026-10-18
+ */
+@ResponseStatus(HttpStatus.PAYLOAD_TOO_LARGE)
+public class ImportTooLargeException extends IllegalArgumentException {
+
+    private static final long serialVersionUID = 4915744815127950227L;
+
+    public ImportTooLargeException(final int maxSize) {
+        super(String.format("Cannot import more than %d items at once.", maxSize));
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2026 michael-simons.eu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.simplemeetup.app;
+
+import ac.simons.simplemeetup.domain.Event;
+import ac.simons.simplemeetup.domain.EventService;
+import ac.simons.simplemeetup.domain.NoSuchEventException;
+import ac.simons.simplemeetup.domain.Registration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.hateoas.Link;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.FluxSink.OverflowStrategy;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A non-blocking variant of the read endpoints of {@link EventsApi}, used instead of it with the {@literal reactive}
+ * profile. The representations are plain JSON through the {@link EventsModule}, without hypermedia. Pages of events are
+ * linked through a {@literal Link} header instead, entity tags work the same as in the blocking API.
+ * <p>
+ * All calls to the {@link EventService} are blocking and are run on the given scheduler. A stream of registrations
+ * waits at most {@literal simple-meetup.reactive.demand-timeout} milliseconds ({@value #DEFAULT_DEMAND_TIMEOUT} by
+ * default) for its subscriber to request more registrations, so that slow consumers don't hold on to the threads of
+ * the scheduler and the connections of the pool.
+ *
+ * @author Michael J. Simons, 2026-10-18
+ */
+@Profile("reactive")
+@RestController
+@RequestMapping("/api/events")
+@SuppressWarnings({"checkstyle:DesignForExtension"})
+public class ReactiveEventsApi {
+
+    static final long DEFAULT_DEMAND_TIMEOUT = 30_000L;
+
+    private final EventService eventService;
+
+    private final Scheduler jdbcScheduler;
+
+    private final long demandTimeoutNanos;
+
+    public ReactiveEventsApi(
+        final EventService eventService, final Scheduler jdbcScheduler, final Environment environment
+    ) {
+        this.eventService = eventService;
+        this.jdbcScheduler = jdbcScheduler;
+        this.demandTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(environment.getProperty(
+            "simple-meetup.reactive.demand-timeout", Long.class, DEFAULT_DEMAND_TIMEOUT));
+    }
+
+    /**
+     * Returns one page of open events as a plain array, see {@link EventPage} for how pages are addressed. The next and
+     * previous pages are linked through a {@literal Link} header.
+     *
+     * @param size    Requested page size, capped at {@link EventsApi#MAX_PAGE_SIZE}
+     * @param after   Optional cursor to start after
+     * @param before  Optional cursor to end before
+     * @param request The current request, base of the links
+     * @return A page of open events
+     */
+    @GetMapping
+    public Mono<ResponseEntity<List<Event>>> events(
+        @RequestParam(defaultValue = "20") final int size,
+        @RequestParam(required = false) final EventCursor after,
+        @RequestParam(required = false) final EventCursor before,
+        final ServerHttpRequest request
+    ) {
+        return Mono.fromCallable(() -> EventPage.of(this.eventService, size, after, before))
+            .subscribeOn(this.jdbcScheduler)
+            .map(page -> {
+                final List<String> links = new ArrayList<>();
+                page.getNext()
+                    .ifPresent(next -> links.add(pageLink(request, page.getSize(), next, null, Link.REL_NEXT)));
+                page.getPrevious()
+                    .ifPresent(prev -> links.add(pageLink(request, page.getSize(), null, prev, Link.REL_PREVIOUS)));
+                return ResponseEntity.ok()
+                    .header(HttpHeaders.LINK, links.toArray(new String[0]))
+                    .body(page.getEvents());
+            });
+    }
+
+    private static String pageLink(
+        final ServerHttpRequest request,
+        final int size, final EventCursor after, final EventCursor before, final String rel
+    ) {
+        final UriComponentsBuilder builder = UriComponentsBuilder.fromHttpRequest(request)
+            .replaceQuery(null)
+            .queryParam("size", size);
+        if (after != null) {
+            builder.queryParam("after", after);
+        }
+        if (before != null) {
+            builder.queryParam("before", before);
+        }
+        return "<" + builder.toUriString() + ">; rel=\"" + rel + "\"";
+    }
+
+    @GetMapping("/{heldOn}/{name}")
+    public Mono<Event> event(
+        @PathVariable @DateTimeFormat(iso = ISO.DATE) final LocalDate heldOn,
+        @PathVariable final String name,
+        final ServerWebExchange exchange
+    ) {
+        return Mono.fromCallable(() -> this.eventService.getEvent(heldOn, name).orElseThrow(NoSuchEventException::new))
+            .subscribeOn(this.jdbcScheduler)
+            .filter(event -> !exchange.checkNotModified(EventsApi.entityTagOf(event)));
+    }
+
+    /**
+     * Emits the registrations while they are read from the database. They are either written as a JSON array or, with
+     * {@literal application/stream+json}, as a sequence of JSON documents. Registrations are only read as fast as they
+     * are requested, reading stops when the subscriber cancels. Requests from downstream are not routed through the
+     * scheduler, its worker is busy reading. The stream fails with a {@link TimeoutException} if the subscriber doesn't
+     * request more registrations in time, which closes the cursor and frees the worker.
+     *
+     * @param heldOn
+     * @param name
+     * @return The registrations of the given event
+     */
+    @GetMapping(value = "/{heldOn}/{name}/registrations",
+        produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_STREAM_JSON_VALUE})
+    public Flux<Registration> registrations(
+        @PathVariable @DateTimeFormat(iso = ISO.DATE) final LocalDate heldOn,
+        @PathVariable final String name
+    ) {
+        return Flux.<Registration>create(sink -> {
+            final Event event = this.eventService.getEvent(heldOn, name).orElseThrow(NoSuchEventException::new);
+            final Object demand = new Object();
+            sink.onRequest(n -> signal(demand));
+            sink.onCancel(() -> signal(demand));
+            try {
+                this.eventService.streamRegistrations(event, registration -> {
+                    awaitDemand(sink, demand, this.demandTimeoutNanos);
+                    sink.next(registration);
+                });
+                sink.complete();
+            } catch (CancellationException e) {
+                // The subscriber is gone or too slow, the cursor has been closed by leaving the stream
+            }
+        }, OverflowStrategy.ERROR)
+            .subscribeOn(this.jdbcScheduler, false);
+    }
+
+    private static void signal(final Object demand) {
+        synchronized (demand) {
+            demand.notifyAll();
+        }
+    }
+
+    /**
+     * Blocks the reading thread until the subscriber requests more registrations, so that they are not buffered. Leaves
+     * the stream of registrations through an exception when the subscriber cancels or doesn't request anything within
+     * the given timeout, the latter is signalled downstream as an error.
+     */
+    private static void awaitDemand(final FluxSink<?> sink, final Object demand, final long timeoutNanos) {
+        synchronized (demand) {
+            final long deadline = System.nanoTime() + timeoutNanos;
+            while (sink.requestedFromDownstream() == 0 && !sink.isCancelled()) {
+                final long remainingNanos = deadline - System.nanoTime();
+                if (remainingNanos <= 0) {
+                    sink.error(new TimeoutException("No demand for registrations within "
+                        + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + "ms."));
+                    throw new CancellationException();
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(demand, remainingNanos);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new CancellationException();
+                }
+            }
+        }
+        if (sink.isCancelled()) {
+            throw new CancellationException();
+        }
+    }
+
+    /**
+     * WebFlux doesn't evaluate {@link ResponseStatus @ResponseStatus} on
+     * exceptions, so missing events are mapped explicitly.
+     */
+    @ExceptionHandler(NoSuchEventException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public void noSuchEvent() {
+    }
+}
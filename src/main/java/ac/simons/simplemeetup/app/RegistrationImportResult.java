@@ -0,0 +1,76 @@
+/*
+ * Copyright 2026 michael-simons.eu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.simplemeetup.app;
+
+import ac.simons.simplemeetup.domain.RegistrationOutcome;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import lombok.Getter;
+import org.springframework.hateoas.ResourceSupport;
+import org.springframework.hateoas.core.Relation;
+
+/**
+ * The result of registering a single person as part of an import, reported at the position of the item in the import.
+ *
+ * @author Michael J. Simons, 2026-10-18
+ */
+@Relation(value = "result", collectionRelation = "results")
+@JsonInclude(Include.NON_NULL)
+@Getter
+public final class RegistrationImportResult extends ResourceSupport {
+
+    /**
+     * The outcomes of registering a person without a waitlist, see {@link RegistrationOutcome}, or the rejection of an
+     * invalid item.
+     */
+    public enum Status {
+        registered, duplicate, full, invalid
+    }
+
+    private final int index;
+
+    private final Status status;
+
+    private final String message;
+
+    private RegistrationImportResult(final int index, final Status status, final String message) {
+        this.index = index;
+        this.status = status;
+        this.message = message;
+    }
+
+    static RegistrationImportResult of(final int index, final RegistrationOutcome outcome) {
+        final Status status;
+        switch (outcome) {
+            case registered:
+                status = Status.registered;
+                break;
+            case duplicate:
+                status = Status.duplicate;
+                break;
+            case full:
+                status = Status.full;
+                break;
+            default:
+                throw new IllegalArgumentException("Imports don't support the outcome " + outcome);
+        }
+        return new RegistrationImportResult(index, status, null);
+    }
+
+    static RegistrationImportResult invalid(final int index, final String message) {
+        return new RegistrationImportResult(index, Status.invalid, message);
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2026 michael-simons.eu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.simplemeetup.app;
+
+import ac.simons.simplemeetup.domain.RegistrationRequest;
+import ac.simons.simplemeetup.domain.RegistrationRequest.Status;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.hateoas.ResourceSupport;
+import org.springframework.hateoas.core.Relation;
+
+import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
+import static org.springframework.hateoas.mvc.ControllerLinkBuilder.methodOn;
+
+/**
+ * The status of a pending or processed registration, linking to itself and to the registrations of the event.
+ *
+ * @author Michael J. Simons, 2026-10-18
+ */
+@Relation(value = "registrationRequest", collectionRelation = "registrationRequests")
+public class RegistrationRequestResource extends ResourceSupport {
+
+    static RegistrationRequestResource of(final RegistrationRequest request) {
+        final RegistrationRequestResource resource = new RegistrationRequestResource(request);
+        resource.add(linkTo(methodOn(RegistrationRequestsApi.class).registrationRequest(request.getId())).withSelfRel());
+        resource.add(EventLinks.forCurrentRequest().linkToRegistrations(request.getEvent(), "registrations"));
+        return resource;
+    }
+
+    private final Status status;
+
+    private final String message;
+
+    RegistrationRequestResource(final RegistrationRequest request) {
+        this.status = request.getStatus();
+        this.message = request.getMessage();
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2026 michael-simons.eu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.simplemeetup.app;
+
+import ac.simons.simplemeetup.domain.RegistrationIntake;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Reports the status of registrations accepted by the {@link RegistrationIntake}. Processed requests are retained for
+ * a limited time only, after that, they are not found anymore.
+ *
+ * @author Michael J. Simons, 2026-10-18
+ */
+@RestController
+@RequestMapping("/api/registration-requests")
+@Profile("registration-intake")
+@SuppressWarnings({"checkstyle:DesignForExtension"})
+public class RegistrationRequestsApi {
+
+    private final RegistrationIntake registrationIntake;
+
+    public RegistrationRequestsApi(final RegistrationIntake registrationIntake) {
+        this.registrationIntake = registrationIntake;
+    }
+
+    /**
+     * @param id
+     * @return The status of the registration request with the given id
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<RegistrationRequestResource> registrationRequest(@PathVariable final String id) {
+        return this.registrationIntake.getRequest(id)
+            .map(RegistrationRequestResource::of)
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2026 michael-simons.eu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.simplemeetup.config;
+
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachingConfigurerSupport;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+/**
+ * Configures the caches of the application. The caches are provided by Caffeine and are bounded through the
+ * {@literal spring.cache.caffeine.spec} property.
+ * <p>
+ * The native cache manager is registered as a bean, so that the actuator binds the caches statistics to the meter
+ * registry. The caching infrastructure itself uses a view of it that applies evictions after a successful commit, so
+ * that no reader caches an event that is being changed by an ongoing transaction. Loads and puts are not deferred, see
+ * {@link EvictAfterCommitCacheManager}.
+ *
+ * @author Michael J. Simons, 2026-10-18
+ */
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig extends CachingConfigurerSupport {
+
+    private final CacheProperties cacheProperties;
+
+    public CacheConfig(final CacheProperties cacheProperties) {
+        this.cacheProperties = cacheProperties;
+    }
+
+    /**
+     * @return The cache manager providing the configured caches
+     */
+    @Bean
+    public CaffeineCacheManager caffeineCacheManager() {
+        final CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        final String spec = this.cacheProperties.getCaffeine().getSpec();
+        if (StringUtils.hasText(spec)) {
+            cacheManager.setCacheSpecification(spec);
+        }
+        cacheManager.setCacheNames(this.cacheProperties.getCacheNames());
+        return cacheManager;
+    }
+
+    @Override
+    public CacheManager cacheManager() {
+        return new EvictAfterCommitCacheManager(caffeineCacheManager());
+    }
+}
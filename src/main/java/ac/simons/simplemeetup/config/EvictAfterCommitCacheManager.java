@@ -0,0 +1,139 @@
+/*
+ * Copyright 2026 michael-simons.eu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.simplemeetup.config;
+
+import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.NullValue;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * A view of a {@link CaffeineCacheManager} whose caches apply evictions after a successful commit, but puts and loads
+ * right away.
+ * <p>
+ * Spring's {@code TransactionAwareCacheDecorator} defers puts as well. A reader that loaded an event before a
+ * registration committed would then put its stale copy after the registration already evicted it. Loads through
+ * {@link Cache#get(Object, Callable)} are computed by Caffeine atomically: An eviction of the same key waits for an
+ * ongoing load and removes its result afterwards. Loads that return {@literal null} are not cached.
+ *
+ * @author Michael J. Simons, 2026-10-18
+ */
+final class EvictAfterCommitCacheManager implements CacheManager {
+
+    private final CaffeineCacheManager targetCacheManager;
+
+    private final ConcurrentMap<String, Cache> caches = new ConcurrentHashMap<>();
+
+    EvictAfterCommitCacheManager(final CaffeineCacheManager targetCacheManager) {
+        this.targetCacheManager = targetCacheManager;
+    }
+
+    @Override
+    public Cache getCache(final String name) {
+        return this.caches.computeIfAbsent(name, key -> {
+            final Cache targetCache = this.targetCacheManager.getCache(key);
+            return targetCache == null ? null : new EvictAfterCommitCache((CaffeineCache) targetCache);
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return this.targetCacheManager.getCacheNames();
+    }
+
+    static final class EvictAfterCommitCache implements Cache {
+
+        private final CaffeineCache targetCache;
+
+        EvictAfterCommitCache(final CaffeineCache targetCache) {
+            this.targetCache = targetCache;
+        }
+
+        @Override
+        public String getName() {
+            return this.targetCache.getName();
+        }
+
+        @Override
+        public com.github.benmanes.caffeine.cache.Cache<Object, Object> getNativeCache() {
+            return this.targetCache.getNativeCache();
+        }
+
+        @Override
+        public ValueWrapper get(final Object key) {
+            return this.targetCache.get(key);
+        }
+
+        @Override
+        public <T> T get(final Object key, final Class<T> type) {
+            return this.targetCache.get(key, type);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T get(final Object key, final Callable<T> valueLoader) {
+            final Object value = getNativeCache().get(key, k -> {
+                try {
+                    return valueLoader.call();
+                } catch (Exception e) {
+                    throw new ValueRetrievalException(key, valueLoader, e);
+                }
+            });
+            return value == NullValue.INSTANCE ? null : (T) value;
+        }
+
+        @Override
+        public void put(final Object key, final Object value) {
+            this.targetCache.put(key, value);
+        }
+
+        @Override
+        public ValueWrapper putIfAbsent(final Object key, final Object value) {
+            return this.targetCache.putIfAbsent(key, value);
+        }
+
+        @Override
+        public void evict(final Object key) {
+            afterCommit(() -> this.targetCache.evict(key));
+        }
+
+        @Override
+        public void clear() {
+            afterCommit(this.targetCache::clear);
+        }
+
+        private static void afterCommit(final Runnable action) {
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                action.run();
+                return;
+            }
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2026 michael-simons.eu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.simplemeetup.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configures the metrics of the application beyond the ones provided by the actuator. Methods annotated with
+ * {@link io.micrometer.core.annotation.Timed @Timed} are timed through an aspect, as the actuator only times web
+ * requests on its own.
+ * <p>
+ * All metrics are available in Prometheus format under {@literal /actuator/prometheus}.
+ *
+ * @author Michael J. Simons, 2026-10-18
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * @param meterRegistry The registry the timers are registered with
+     * @return The aspect timing methods annotated with {@code @Timed}
+     */
+    @Bean
+    public TimedAspect timedAspect(final MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
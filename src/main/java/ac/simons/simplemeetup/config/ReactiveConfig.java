@@ -0,0 +1,66 @@
+/*
+ * Copyright 2026 michael-simons.eu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.simplemeetup.config;
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Configures the reactive variant of the API, which is activated through the {@literal reactive} profile when the
+ * application is started through {@link ac.simons.simplemeetup.ReactiveApplication}.
+ * <p>
+ * The database is still accessed through JPA and JDBC, which are blocking. All database work of the reactive API is
+ * therefore moved to a dedicated scheduler with one thread per connection in the pool, so that the event loop threads
+ * never wait on the database.
+ *
+ * @author Michael J. Simons, 2026-10-18
+ */
+@Profile("reactive")
+@Configuration
+public class ReactiveConfig {
+
+    private static final int DEFAULT_MAXIMUM_POOL_SIZE = 10;
+
+    /**
+     * Tomcat is on the classpath for the blocking API and would be preferred otherwise.
+     *
+     * @return A factory for a Netty based server, using a small number of event loop threads
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * @param environment Used to determine the size of the connection pool
+     * @return A scheduler for running blocking database calls
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler jdbcScheduler(final Environment environment) {
+        final int maximumPoolSize = environment
+            .getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, DEFAULT_MAXIMUM_POOL_SIZE);
+        return Schedulers.fromExecutorService(
+            Executors.newFixedThreadPool(maximumPoolSize, new CustomizableThreadFactory("jdbc-")));
+    }
+}
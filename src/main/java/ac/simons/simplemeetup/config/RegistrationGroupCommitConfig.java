@@ -0,0 +1,56 @@
+/*
+ * Copyright 2026 michael-simons.eu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.simplemeetup.config;
+
+import ac.simons.simplemeetup.domain.EventService;
+import ac.simons.simplemeetup.domain.RegistrationGroupCommit;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configures the coalescing of concurrent registrations for the same event, see {@link RegistrationGroupCommit}.
+ * <p>
+ * By default, registrations are only coalesced while a transaction for the same event is in flight. The leader of a
+ * group can additionally wait for {@literal simple-meetup.group-commit.window} microseconds for more registrations,
+ * trading latency for larger batches on hot events. {@literal simple-meetup.group-commit.max-batch-size} limits the
+ * number of registrations written in one transaction.
+ *
+ * @author Michael J. Simons, 2026-10-18
+ */
+@Configuration
+public class RegistrationGroupCommitConfig {
+
+    private static final int DEFAULT_MAX_BATCH_SIZE = 100;
+
+    private static final long DEFAULT_WINDOW_IN_MICROSECONDS = 0;
+
+    /**
+     * @param eventService Used for writing the registrations
+     * @param environment  Used to determine batch size and window
+     * @return The group commit for registrations
+     */
+    @Bean
+    public RegistrationGroupCommit registrationGroupCommit(final EventService eventService, final Environment environment) {
+        return new RegistrationGroupCommit(eventService,
+            environment.getProperty("simple-meetup.group-commit.max-batch-size", Integer.class, DEFAULT_MAX_BATCH_SIZE),
+            TimeUnit.MICROSECONDS.toNanos(environment.getProperty(
+                "simple-meetup.group-commit.window", Long.class, DEFAULT_WINDOW_IN_MICROSECONDS))
+        );
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2026 michael-simons.eu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.simplemeetup.config;
+
+import ac.simons.simplemeetup.domain.EventService;
+import ac.simons.simplemeetup.domain.RegistrationIntake;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+
+/**
+ * Activates the asynchronous intake of registrations through the {@literal registration-intake} profile. Registrations
+ * are acknowledged with {@literal 202 Accepted} and written behind in batches, see {@link RegistrationIntake}.
+ * <p>
+ * The number of pending registrations is bounded by {@literal simple-meetup.registration-intake.capacity}, the
+ * number of registrations written at once by {@literal simple-meetup.registration-intake.batch-size}.
+ *
+ * @author Michael J. Simons, 2026-10-18
+ */
+@Profile("registration-intake")
+@Configuration
+public class RegistrationIntakeConfig {
+
+    private static final int DEFAULT_CAPACITY = 10_000;
+
+    private static final int DEFAULT_BATCH_SIZE = 100;
+
+    private static final long DEFAULT_RETENTION_IN_MINUTES = 10;
+
+    /**
+     * @param eventService  Used for writing the registrations
+     * @param environment   Used to determine capacity and batch size
+     * @param meterRegistry The registry the number of pending and failed registrations is registered with
+     * @return The intake of registrations
+     */
+    @Bean
+    public RegistrationIntake registrationIntake(
+        final EventService eventService, final Environment environment, final MeterRegistry meterRegistry
+    ) {
+        final RegistrationIntake registrationIntake = new RegistrationIntake(eventService,
+            environment.getProperty("simple-meetup.registration-intake.capacity", Integer.class, DEFAULT_CAPACITY),
+            environment.getProperty("simple-meetup.registration-intake.batch-size", Integer.class, DEFAULT_BATCH_SIZE),
+            environment.getProperty(
+                "simple-meetup.registration-intake.retention", Long.class, DEFAULT_RETENTION_IN_MINUTES),
+            meterRegistry
+        );
+        Gauge.builder("events.registrations.pending", registrationIntake, RegistrationIntake::getNumberOfPendingRequests)
+            .description("Number of registrations waiting for being written")
+            .register(meterRegistry);
+        return registrationIntake;
+    }
+}
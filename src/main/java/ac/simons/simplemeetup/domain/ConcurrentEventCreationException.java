@@ -0,0 +1,34 @@
+/*
+ * Copyright 2026 michael-simons.eu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.simplemeetup.domain;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when some of many new events have been created concurrently between checking for existing events and
+ * inserting them. The transaction has been rolled back, so that the creation can be retried as a whole.
+ *
+ * @author Michael J. Simons, 2026-10-18
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public final class ConcurrentEventCreationException extends RuntimeException {
+    private static final long serialVersionUID = 2604216180397351521L;
+
+    public ConcurrentEventCreationException(final Throwable cause) {
+        super("Some of the new events have been created concurrently.", cause);
+    }
+}
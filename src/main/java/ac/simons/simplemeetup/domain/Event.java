@@ -33,14 +33,22 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
+import javax.persistence.OrderBy;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 import javax.persistence.UniqueConstraint;
 import java.io.Serializable;
 import java.time.Clock;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * @author Michael J. Simons, 2017-10-31
@@ -69,8 +77,18 @@ public class Event implements Serializable {
     static final ThreadLocal<Clock> CLOCK =
         ThreadLocal.withInitial(Clock::systemDefaultZone);
 
+    /**
+     * The number of ids reserved by each value of {@literal events_seq}. It must be the same as the increment of the
+     * sequence.
+     */
+    static final int ID_ALLOCATION_SIZE = 50;
+
+    /**
+     * Ids are drawn from a pooled sequence, so that Hibernate can batch inserts.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "events_seq")
+    @SequenceGenerator(name = "events_seq", sequenceName = "events_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Integer id;
 
     @Column(name = "held_on", nullable = false)
@@ -94,12 +112,34 @@ public class Event implements Serializable {
     private Status status;
 
     // end::event-entity[]
+    /**
+     * Mapped as a set: Hibernate treats an unordered list as a bag and deletes and reinserts all rows on every change.
+     * The set keeps its order, registrations are loaded ordered by email, as they have no other stable order.
+     */
     @ElementCollection
     @CollectionTable(name = "registrations", joinColumns = @JoinColumn(name = "event_id"))
+    @OrderBy("email asc")
+    // tag::event-entity[]
+    private Set<Registration> registrations = new LinkedHashSet<>();
+
+    // end::event-entity[]
+    /**
+     * Denormalized number of registrations, so that capacity checks don't need to load all registrations. It is never
+     * written through the entity but only incremented atomically by {@link EventRepository#claimSeat(Event)}.
+     */
+    @Column(name = "number_of_registrations", nullable = false, updatable = false)
     // tag::event-entity[]
-    private List<Registration> registrations = new ArrayList<>();
+    private Integer numberOfRegistrations = 0;
 
     // end::event-entity[]
+    /**
+     * Number of cancelled registrations, only incremented by {@link EventRepository#releaseSeat(Event)}. A promotion
+     * from the waitlist replaces a cancelled registration without changing the number of registrations, but together
+     * both numbers change with every change of the registrations.
+     */
+    @Column(name = "number_of_cancellations", nullable = false, updatable = false)
+    private Integer numberOfCancellations = 0;
+
     public Event(final LocalDate heldOn, final String name) {
         this(heldOn, name, 20);
     }
@@ -134,8 +174,11 @@ public class Event implements Serializable {
         this.numberOfSeats = numberOfSeats;
     }
 
+    /**
+     * @return The registrations of a loaded event ordered by email, followed by those added since then
+     */
     public List<Registration> getRegistrations() {
-        return Collections.unmodifiableList(this.registrations);
+        return Collections.unmodifiableList(new ArrayList<>(this.registrations));
     }
 
     public boolean isPastEvent() {
@@ -151,24 +194,58 @@ public class Event implements Serializable {
     }
 
     public boolean isFull() {
-        return this.registrations.size() == this.numberOfSeats;
+        return this.numberOfRegistrations >= this.numberOfSeats;
     }
 
     public void close() {
         this.status = Status.closed;
     }
 
+    /**
+     * Computed from the stored number of registrations, so that listing events doesn't initialize the registrations of
+     * each event.
+     *
+     * @return The number of seats left
+     */
     public Integer getNumberOfFreeSeats() {
-        return this.numberOfSeats - this.registrations.size();
+        return this.numberOfSeats - this.numberOfRegistrations;
     }
 
+    /**
+     * Registers a person for this event in memory: A seat is claimed, so that the capacity of the event is enforced,
+     * and the registration is added to the collection of this event. The counter of a persisted event is not written
+     * through the entity, the {@link EventService} claims its seats through the {@link EventRepository}.
+     *
+     * @param person The person to register for the event
+     * @return The new registration
+     */
     // tag::event-entity[]
     public Registration register(final Person person) { // <2>
-        // end::event-entity[]
+        final Registration registration = claimSeatFor(person, this.registrations::contains);
+        this.registrations.add(registration);
+        return registration;
+    }
+
+    // end::event-entity[]
+    /**
+     * Checks whether the given person can register for this event and claims a seat if so. The list of registrations
+     * is not touched, the caller is responsible for storing the returned registration.
+     *
+     * @param person            The person to register for the event
+     * @param alreadyRegistered Checks whether a registration already exists
+     * @return The new registration
+     */
+    // tag::event-entity[]
+    Registration claimSeatFor(final Person person, final Predicate<Registration> alreadyRegistered) { // <3>
+        final Registration registration = checkRegistrationOf(person, alreadyRegistered);
+        this.numberOfRegistrations = this.numberOfRegistrations + 1;
+        return registration;
+    }
+
+    private Registration checkRegistrationOf(final Person person, final Predicate<Registration> alreadyRegistered) {
         if (isClosed()) {
             throw new IllegalStateException("Cannot register for a closed event.");
         }
-        // tag::event-entity[]
         if (isPastEvent()) {
             throw new IllegalStateException("Cannot register for a past event.");
         }
@@ -176,22 +253,56 @@ public class Event implements Serializable {
             throw new IllegalStateException("Cannot register for a full event.");
         }
 
-        // Weitere Bedingungen ausgeblendet
-        // end::event-entity[]
         final Registration registration = new Registration(person);
-        if (this.registrations.contains(registration)) {
+        if (alreadyRegistered.test(registration)) {
             throw new IllegalArgumentException("Already registered with email-addess" + person.getEmail());
         }
-        // tag::event-entity[]
-        this.registrations.add(registration);
         return registration;
     }
     // end::event-entity[]
 
+    /**
+     * Claims seats for many persons at once, in the given order, as long as seats are free. Emails that are already
+     * registered or that occur more than once are skipped. The list of registrations is not touched, the caller is
+     * responsible for storing the registrations passed to {@code newRegistrations}.
+     *
+     * @param candidates       The registrations of the persons to register for the event
+     * @param registeredEmails The emails of the candidates already registered for this event
+     * @param newRegistrations Receives the registrations for which a seat has been claimed
+     * @return The outcome for each candidate, in order
+     */
+    List<RegistrationOutcome> claimSeatsFor(
+        final List<Registration> candidates,
+        final Collection<String> registeredEmails,
+        final Consumer<Registration> newRegistrations
+    ) {
+        if (isClosed()) {
+            throw new IllegalStateException("Cannot register for a closed event.");
+        }
+        if (isPastEvent()) {
+            throw new IllegalStateException("Cannot register for a past event.");
+        }
+
+        final Set<String> emails = new HashSet<>(registeredEmails);
+        final List<RegistrationOutcome> outcomes = new ArrayList<>(candidates.size());
+        for (final Registration candidate : candidates) {
+            if (!emails.add(candidate.getEmail())) {
+                outcomes.add(RegistrationOutcome.duplicate);
+            } else if (isFull()) {
+                outcomes.add(RegistrationOutcome.full);
+            } else {
+                this.numberOfRegistrations = this.numberOfRegistrations + 1;
+                newRegistrations.accept(candidate);
+                outcomes.add(RegistrationOutcome.registered);
+            }
+        }
+        return outcomes;
+    }
+
     Example<Event> asExample() {
         return Example.of(this, ExampleMatcher.matching()
             .withIgnoreNullValues()
-            .withIgnorePaths("numberOfSeats", "status")
+            .withIgnorePaths("numberOfSeats", "status", "numberOfRegistrations")
             .withMatcher("heldOn", match -> match.exact())
             .withMatcher("name", match -> match.exact())
         );
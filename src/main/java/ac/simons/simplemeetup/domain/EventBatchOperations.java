@@ -0,0 +1,51 @@
+/*
+ * Copyright 2026 michael-simons.eu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.simplemeetup.domain;
+
+import java.util.Collection;
+
+/**
+ * Operations on many events at once that are not expressible through JPA without giving up batching. This is a
+ * fragment of the {@link EventRepository}.
+ *
+ * @author Michael J. Simons, 2026-10-18
+ */
+interface EventBatchOperations {
+
+    /**
+     * Inserts new events through batched JDBC statements, bypassing the persistence context.
+     *
+     * @param newEvents The events to insert, must not exist yet
+     */
+    void insertAll(Collection<Event> newEvents);
+
+    /**
+     * Inserts new registrations for an event through batched JDBC statements, bypassing the collection of the event.
+     * The caller is responsible for having claimed the corresponding seats.
+     *
+     * @param event            The event to register for
+     * @param newRegistrations The registrations to insert, must not exist yet
+     */
+    void addRegistrations(Event event, Collection<Registration> newRegistrations);
+
+    /**
+     * Puts persons at the end of the waitlist of an event through batched JDBC statements, in the given order.
+     *
+     * @param event      The event to wait for
+     * @param latecomers The persons to put on the waitlist, must not be on it yet
+     */
+    void addAllToWaitlist(Event event, Collection<Registration> latecomers);
+}
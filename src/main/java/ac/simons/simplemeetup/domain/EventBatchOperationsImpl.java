@@ -0,0 +1,98 @@
+/*
+ * Copyright 2026 michael-simons.eu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.simplemeetup.domain;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Inserts events and registrations with JDBC batching, bypassing the persistence context. Registrations are part of an
+ * element collection, which Hibernate would have to initialize first.
+ * <p>
+ * The ids of new events are taken from the same pooled {@literal events_seq} Hibernate uses: Each value of the sequence
+ * reserves the block of {@link Event#ID_ALLOCATION_SIZE} ids ending with that value, so one value is selected for each
+ * block of events instead of letting the column default burn a whole block for each row.
+ *
+ * @author Michael J. Simons, 2026-10-18
+ */
+final class EventBatchOperationsImpl implements EventBatchOperations {
+
+    static final int BATCH_SIZE = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    EventBatchOperationsImpl(final JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAll(final Collection<Event> newEvents) {
+        final Iterator<Integer> ids = reserveIds(newEvents.size()).iterator();
+        this.jdbcTemplate.batchUpdate(
+            "INSERT INTO events (id, held_on, name, number_of_seats, status) VALUES (?, ?, ?, ?, ?)",
+            newEvents, BATCH_SIZE,
+            (ps, event) -> {
+                ps.setInt(1, ids.next());
+                ps.setDate(2, Date.valueOf(event.getHeldOn()));
+                ps.setString(3, event.getName());
+                ps.setInt(4, event.getNumberOfSeats());
+                ps.setString(5, event.getStatus().name());
+            }
+        );
+    }
+
+    private List<Integer> reserveIds(final int count) {
+        final List<Integer> ids = new ArrayList<>(count);
+        while (ids.size() < count) {
+            final int hi = this.jdbcTemplate.queryForObject("SELECT nextval('events_seq')", Integer.class);
+            for (int id = hi - Event.ID_ALLOCATION_SIZE + 1; id <= hi && ids.size() < count; ++id) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    @Override
+    public void addRegistrations(final Event event, final Collection<Registration> newRegistrations) {
+        this.jdbcTemplate.batchUpdate(
+            "INSERT INTO registrations (event_id, email, name) VALUES (?, ?, ?)",
+            newRegistrations, BATCH_SIZE,
+            (ps, registration) -> {
+                ps.setInt(1, event.getId());
+                ps.setString(2, registration.getEmail());
+                ps.setString(3, registration.getName());
+            }
+        );
+    }
+
+    @Override
+    public void addAllToWaitlist(final Event event, final Collection<Registration> latecomers) {
+        this.jdbcTemplate.batchUpdate(
+            "INSERT INTO waitlist (event_id, email, name) VALUES (?, ?, ?)",
+            latecomers, BATCH_SIZE,
+            (ps, registration) -> {
+                ps.setInt(1, event.getId());
+                ps.setString(2, registration.getEmail());
+                ps.setString(3, registration.getName());
+            }
+        );
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2026 michael-simons.eu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.simplemeetup.domain;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Locks events for the duration of a transaction. This is a fragment of the {@link EventRepository}.
+ *
+ * @author Michael J. Simons, 2026-10-18
+ */
+interface EventLockOperations {
+
+    /**
+     * Looks up an event by its natural key and locks its row until the end of the transaction, so that its number of
+     * registrations cannot change in between. An event that has already been loaded into the current persistence
+     * context is refreshed after locking it, so that its state is the one committed by the last writer.
+     *
+     * @param heldOn
+     * @param name
+     * @return The locked event with the given date and name
+     */
+    Optional<Event> findOneForUpdateByHeldOnAndName(LocalDate heldOn, String name);
+}
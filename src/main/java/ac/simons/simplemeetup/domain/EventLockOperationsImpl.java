@@ -0,0 +1,56 @@
+/*
+ * Copyright 2026 michael-simons.eu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.simplemeetup.domain;
+
+import org.hibernate.Session;
+import org.hibernate.stat.SessionStatistics;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Hibernate doesn't refresh the state of an entity that a locking query returns if the entity has already been
+ * managed. This happens when several transactions run on the same entity manager, for example while a view keeps it
+ * open. The event is refreshed only in that case, an event loaded by the locking query is fresh anyway.
+ *
+ * @author Michael J. Simons, 2026-10-18
+ */
+final class EventLockOperationsImpl implements EventLockOperations {
+
+    private final EntityManager entityManager;
+
+    EventLockOperationsImpl(final EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Optional<Event> findOneForUpdateByHeldOnAndName(final LocalDate heldOn, final String name) {
+        final SessionStatistics statistics = this.entityManager.unwrap(Session.class).getStatistics();
+        final int numberOfManagedEntities = statistics.getEntityCount();
+        final Optional<Event> event = this.entityManager
+            .createQuery("Select e from Event e where e.heldOn = :heldOn and e.name = :name", Event.class)
+            .setParameter("heldOn", heldOn)
+            .setParameter("name", name)
+            .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+            .getResultList().stream().findFirst();
+        if (event.isPresent() && statistics.getEntityCount() == numberOfManagedEntities) {
+            this.entityManager.refresh(event.get());
+        }
+        return event;
+    }
+}
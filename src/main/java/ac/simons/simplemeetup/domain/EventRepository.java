@@ -15,21 +15,76 @@
  */
 package ac.simons.simplemeetup.domain;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 // tag::event-repository[]
 import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.repository.query.QueryByExampleExecutor;
 
 // end::event-repository[]
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 /**
  * @author Michael J. Simons, 2017-10-31
  */
 // tag::event-repository[]
-interface EventRepository extends Repository<Event, Integer>, QueryByExampleExecutor<Event> {
+interface EventRepository
+    extends Repository<Event, Integer>, QueryByExampleExecutor<Event>, EventBatchOperations, EventLockOperations {
     Event save(Event newEvent);
     // end::event-repository[]
+
+    /**
+     * Saves the event and flushes right away, so that a violation of {@code events_uk} surfaces at the call site.
+     *
+     * @param newEvent
+     * @return The saved event
+     */
+    Event saveAndFlush(Event newEvent);
+
+    /**
+     * Looks up an event by its natural key, backed by the {@code events_uk} index. Prefer this over the query by
+     * example, which has to build a matcher and a criteria query for each call.
+     *
+     * @param heldOn
+     * @param name
+     * @return The event with the given date and name
+     */
+    Optional<Event> findOneByHeldOnAndName(LocalDate heldOn, String name);
+
+    /**
+     * Selects all events held on one of the given dates and having one of the given names. This is a superset of the
+     * events with the corresponding keys, but finds all of them in one query.
+     *
+     * @param heldOn
+     * @param names
+     * @return The events matching any of the given dates and any of the given names
+     */
+    List<Event> findAllByHeldOnInAndNameIn(Collection<LocalDate> heldOn, Collection<String> names);
+
+    /**
+     * Locks the row of an event until the end of the transaction and selects its current status. Other than
+     * {@link #findOneForUpdateByHeldOnAndName(LocalDate, String)} this neither loads nor refreshes the event, which
+     * is useful when only its status has to be checked under the lock.
+     *
+     * @param event The event to lock
+     * @return The status of the event, as committed by the last writer
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("Select e.status from Event e where e = :event")
+    Event.Status findStatusForUpdate(@Param("event") Event event);
+
     // tag::event-repository-custom-query[]
     @Query("Select e from Event e "
         + " where e.status = 'open' "
@@ -38,6 +93,243 @@ interface EventRepository extends Repository<Event, Integer>, QueryByExampleExec
     )
     List<Event> findAllOpenEvents();
     // end::event-repository-custom-query[]
+
+    /**
+     * @param pageable Only used for limiting the number of results
+     * @return The first open events, ordered by {@code (heldOn, name)}
+     */
+    @Query("Select e from Event e "
+        + " where e.status = 'open' "
+        + "   and e.heldOn > current_date"
+        + " order by e.heldOn asc, e.name asc"
+    )
+    List<Event> findOpenEvents(Pageable pageable);
+
+    /**
+     * Sums up the free seats with one aggregate over the counter of registrations, no event is loaded.
+     *
+     * @return The number of free seats of all open events in the future
+     */
+    @Query("Select coalesce(sum(e.numberOfSeats - e.numberOfRegistrations), 0) from Event e "
+        + " where e.status = 'open' "
+        + "   and e.heldOn > current_date"
+    )
+    long countFreeSeatsOfOpenEvents();
+
+    /**
+     * Seeks the open events following the given key on the {@code events_uk} columns.
+     *
+     * @param heldOn
+     * @param name
+     * @param pageable Only used for limiting the number of results
+     * @return Open events after the given one, ordered by {@code (heldOn, name)}
+     */
+    @Query("Select e from Event e "
+        + " where e.status = 'open' "
+        + "   and e.heldOn > current_date"
+        + "   and (e.heldOn > :heldOn or (e.heldOn = :heldOn and e.name > :name))"
+        + " order by e.heldOn asc, e.name asc"
+    )
+    List<Event> findOpenEventsAfter(@Param("heldOn") LocalDate heldOn, @Param("name") String name, Pageable pageable);
+
+    /**
+     * Seeks the open events preceding the given key on the {@code events_uk} columns.
+     *
+     * @param heldOn
+     * @param name
+     * @param pageable Only used for limiting the number of results
+     * @return Open events before the given one, in descending order of {@code (heldOn, name)}
+     */
+    @Query("Select e from Event e "
+        + " where e.status = 'open' "
+        + "   and e.heldOn > current_date"
+        + "   and (e.heldOn < :heldOn or (e.heldOn = :heldOn and e.name < :name))"
+        + " order by e.heldOn desc, e.name desc"
+    )
+    List<Event> findOpenEventsBefore(@Param("heldOn") LocalDate heldOn, @Param("name") String name, Pageable pageable);
+
+    /**
+     * Checks for an existing registration through the {@code registrations_uk} index without loading all registrations
+     * of the event.
+     *
+     * @param event
+     * @param email
+     * @return True, if someone already registered with the given email address
+     */
+    @Query("Select case when count(r) > 0 then true else false end "
+        + " from Event e join e.registrations r "
+        + " where e = :event "
+        + "   and r.email = :email"
+    )
+    boolean isRegistered(@Param("event") Event event, @Param("email") String email);
+
+    /**
+     * Selects the registrations of an event without initializing the collection of the event. The registrations are
+     * ordered by email like the collection, so that representations derived from them are stable.
+     *
+     * @param event
+     * @return The registrations of the given event
+     */
+    @Query("Select r from Event e join e.registrations r where e = :event order by r.email asc")
+    List<Registration> findAllRegistrations(@Param("event") Event event);
+
+    /**
+     * Streams the registrations of an event through a database cursor. The stream must be consumed inside a
+     * transaction and closed afterwards. The registrations are ordered by email.
+     *
+     * @param event
+     * @return The registrations of the given event
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("Select r from Event e join e.registrations r where e = :event order by r.email asc")
+    Stream<Registration> streamAllRegistrations(@Param("event") Event event);
+
+    /**
+     * @param event
+     * @param emails
+     * @return Those of the given emails that are already registered for the given event
+     */
+    @Query("Select r.email from Event e join e.registrations r where e = :event and r.email in :emails")
+    List<String> findRegisteredEmails(@Param("event") Event event, @Param("emails") Collection<String> emails);
+
+    /**
+     * Claims a seat by incrementing the number of registrations if - and only if - the event is still open and not
+     * full. The conditional update is atomic, concurrent claims only wait on the row lock of the event.
+     *
+     * @param event
+     * @return 1 if a seat has been claimed, 0 otherwise
+     */
+    @Modifying
+    @Query("Update Event e "
+        + "   set e.numberOfRegistrations = e.numberOfRegistrations + 1 "
+        + " where e = :event "
+        + "   and e.status = 'open' "
+        + "   and e.numberOfRegistrations < e.numberOfSeats"
+    )
+    int claimSeat(@Param("event") Event event);
+
+    /**
+     * Claims several seats at once, if - and only if - the event is still open and has enough free seats.
+     *
+     * @param event
+     * @param seats The number of seats to claim
+     * @return 1 if the seats have been claimed, 0 otherwise
+     */
+    @Modifying
+    @Query("Update Event e "
+        + "   set e.numberOfRegistrations = e.numberOfRegistrations + :seats "
+        + " where e = :event "
+        + "   and e.status = 'open' "
+        + "   and e.numberOfRegistrations + :seats <= e.numberOfSeats"
+    )
+    int claimSeats(@Param("event") Event event, @Param("seats") int seats);
+
+    /**
+     * Stores a single registration. Adding to {@link Event#getRegistrations()} would require Hibernate to initialize
+     * the whole collection first.
+     *
+     * @param event
+     * @param registration
+     */
+    @Modifying
+    @Query(value = "INSERT INTO registrations (event_id, email, name) "
+        + " VALUES(:#{#event.id}, :#{#registration.email}, :#{#registration.name})",
+        nativeQuery = true
+    )
+    void addRegistration(@Param("event") Event event, @Param("registration") Registration registration);
+
+    /**
+     * @param event
+     * @param email
+     * @return 1 if the registration with the given email has been removed, 0 if there was none
+     */
+    @Modifying
+    @Query(value = "DELETE FROM registrations WHERE event_id = :#{#event.id} AND email = :email", nativeQuery = true)
+    int removeRegistration(@Param("event") Event event, @Param("email") String email);
+
+    /**
+     * Releases the seat of a removed registration and counts the cancellation.
+     *
+     * @param event
+     * @return 1 if the seat has been released
+     */
+    @Modifying
+    @Query("Update Event e "
+        + "   set e.numberOfRegistrations = e.numberOfRegistrations - 1, "
+        + "       e.numberOfCancellations = e.numberOfCancellations + 1 "
+        + " where e = :event "
+        + "   and e.numberOfRegistrations > 0"
+    )
+    int releaseSeat(@Param("event") Event event);
+
+    /**
+     * @param event
+     * @param email
+     * @return True if the given email is on the waitlist of the event
+     */
+    @Query(value = "SELECT CASE WHEN count(*) > 0 THEN true ELSE false END "
+        + "  FROM waitlist WHERE event_id = :#{#event.id} AND email = :email",
+        nativeQuery = true
+    )
+    boolean isWaitlisted(@Param("event") Event event, @Param("email") String email);
+
+    /**
+     * @param event
+     * @param emails
+     * @return Those of the given emails that are on the waitlist of the given event
+     */
+    @Query(value = "SELECT email FROM waitlist WHERE event_id = :#{#event.id} AND email IN :emails", nativeQuery = true)
+    List<String> findWaitlistedEmails(@Param("event") Event event, @Param("emails") Collection<String> emails);
+
+    /**
+     * Puts a person at the end of the waitlist of an event.
+     *
+     * @param event
+     * @param registration
+     */
+    @Modifying
+    @Query(value = "INSERT INTO waitlist (event_id, email, name) "
+        + " VALUES(:#{#event.id}, :#{#registration.email}, :#{#registration.name})",
+        nativeQuery = true
+    )
+    void addToWaitlist(@Param("event") Event event, @Param("registration") Registration registration);
+
+    /**
+     * @param event
+     * @param email
+     * @return 1 if the given email has been removed from the waitlist, 0 if it wasn't on it
+     */
+    @Modifying
+    @Query(value = "DELETE FROM waitlist WHERE event_id = :#{#event.id} AND email = :email", nativeQuery = true)
+    int removeFromWaitlist(@Param("event") Event event, @Param("email") String email);
+
+    /**
+     * Registers the first persons of the waitlist, in the order they joined it. The caller is responsible for locking
+     * the event, claiming the seats and removing the registered persons through
+     * {@link #removeFirstFromWaitlist(Event, int)}.
+     *
+     * @param event
+     * @param seats The maximum number of persons to register
+     * @return The number of persons registered
+     */
+    @Modifying
+    @Query(value = "INSERT INTO registrations (event_id, email, name) "
+        + "SELECT event_id, email, name FROM waitlist WHERE event_id = :#{#event.id} ORDER BY id LIMIT :seats",
+        nativeQuery = true
+    )
+    int addRegistrationsFromWaitlist(@Param("event") Event event, @Param("seats") int seats);
+
+    /**
+     * @param event
+     * @param count The number of persons to remove from the head of the waitlist
+     * @return The number of persons removed
+     */
+    @Modifying
+    @Query(value = "DELETE FROM waitlist WHERE id IN ("
+        + "SELECT id FROM waitlist WHERE event_id = :#{#event.id} ORDER BY id LIMIT :count)",
+        nativeQuery = true
+    )
+    int removeFirstFromWaitlist(@Param("event") Event event, @Param("count") int count);
     // tag::event-repository[]
 }
 // end::event-repository[]
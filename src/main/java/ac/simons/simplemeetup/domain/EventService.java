@@ -15,72 +15,507 @@
  */
 package ac.simons.simplemeetup.domain;
 
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import javax.transaction.Transactional;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.counting;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
 
 /**
  * The service is the central element for the application logic to interact with events and registrations. It represents
  * a transaction boundary.
+ * <p>
+ * Single events are cached by their date and name. All operations changing an event evict it from the cache.
+ * <p>
+ * The service methods are timed as {@literal events.service}, tagged with their name. The outcome of each attempt to
+ * register a person is counted as {@literal events.registrations}, tagged with one of {@literal registered},
+ * {@literal duplicate}, {@literal full}, {@literal closed}, {@literal past} or {@literal waitlisted}. Persons
+ * registered from the waitlist are counted as {@literal promoted}. The free seats of all open events are available as
+ * the gauge {@literal events.open.free-seats}, which is selected at most every
+ * {@value #FREE_SEATS_MAX_AGE_SECONDS} seconds, independent of how often it is scraped.
  *
  * @author Michael J. Simons, 2017-10-31
  */
 @Service
 @Transactional
-@RequiredArgsConstructor
+@CacheConfig(cacheNames = "events")
 // tag::event-repository-usage[]
 public class EventService {
     private final EventRepository eventRepository;
 
     // end::event-repository-usage[]
+    static final int FREE_SEATS_MAX_AGE_SECONDS = 30;
+
+    /**
+     * The values of the {@literal outcome} tag of {@literal events.registrations}: The outcomes of
+     * {@link RegistrationOutcome} and the reasons for rejecting persons altogether.
+     */
+    private enum CountedOutcome {
+        registered, duplicate, full, waitlisted, closed, past, promoted;
+
+        static CountedOutcome of(final RegistrationOutcome outcome) {
+            switch (outcome) {
+                case registered:
+                    return registered;
+                case duplicate:
+                    return duplicate;
+                case full:
+                    return full;
+                case waitlisted:
+                    return waitlisted;
+                default:
+                    throw new IllegalArgumentException("Unknown outcome " + outcome);
+            }
+        }
+    }
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Holds the sum of free seats of all open events under a single key. The gauge only references this weakly.
+     */
+    private final LoadingCache<String, Long> freeSeatsOfOpenEvents;
+
+    public EventService(final EventRepository eventRepository, final MeterRegistry meterRegistry) {
+        this.eventRepository = eventRepository;
+        this.meterRegistry = meterRegistry;
+
+        this.freeSeatsOfOpenEvents = Caffeine.newBuilder()
+            .expireAfterWrite(FREE_SEATS_MAX_AGE_SECONDS, TimeUnit.SECONDS)
+            .build(key -> eventRepository.countFreeSeatsOfOpenEvents());
+        Gauge.builder("events.open.free-seats", this.freeSeatsOfOpenEvents, cache -> cache.get("open"))
+            .description("The number of free seats of all open events in the future")
+            .register(meterRegistry);
+    }
 
     /**
+     * Events are loaded without a transaction of their own and cached right after loading, absent events are not
+     * cached.
+     *
      * @param heldOn
      * @param name
      * @return The event with the given date and name
      */
+    @Timed("events.service")
+    @Transactional(Transactional.TxType.SUPPORTS)
+    @Cacheable(key = "#heldOn.toString() + '/' + #name", sync = true)
     public Optional<Event> getEvent(final LocalDate heldOn, final String name) {
-        return this.eventRepository.findOne(new Event(heldOn, name).asExample());
+        return this.eventRepository.findOneByHeldOnAndName(heldOn, name);
     }
 
     /**
-     * Creates a new event and checks first wether the event already exists or not.
+     * Creates a new event with a single insert. The event is a duplicate if the insert violates {@code events_uk}, which
+     * holds true for concurrent creators as well.
      *
      * @param newEvent
      * @return
      */
     // tag::event-repository-usage[]
+    @Timed("events.service")
+    @CacheEvict(key = "#newEvent.heldOn.toString() + '/' + #newEvent.name")
     public Event createNewEvent(final Event newEvent) {
-        this.eventRepository.findOne(newEvent.asExample())
-            .ifPresent(e -> {
-                throw new DuplicateEventException(e);
-            });
-        return this.eventRepository.save(newEvent);
+        try {
+            return this.eventRepository.saveAndFlush(newEvent);
+        } catch (DataIntegrityViolationException e) {
+            if (isViolationOf(e, "events_uk")) {
+                throw new DuplicateEventException(newEvent);
+            }
+            throw e;
+        }
     }
     // end::event-repository-usage[]
 
     /**
-     * Registers for a new event.
+     * Creates many new events at once. Existing events are detected with a single query, events contained more than
+     * once are only created once. All other events are inserted in batches.
+     * <p>
+     * Events created concurrently between the check and the insert violate {@code events_uk}. As the failed insert
+     * aborts the transaction, this is reported as a {@link ConcurrentEventCreationException} so that the caller can
+     * retry the creation in a new transaction, which then sees those events as existing.
+     *
+     * @param newEvents
+     * @return The events that have actually been created, in the order given
+     */
+    @Timed("events.service")
+    public List<Event> createNewEvents(final List<Event> newEvents) {
+        if (newEvents.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        final Set<Event> existingEvents = new HashSet<>(this.eventRepository.findAllByHeldOnInAndNameIn(
+            newEvents.stream().map(Event::getHeldOn).collect(toSet()),
+            newEvents.stream().map(Event::getName).collect(toSet())
+        ));
+        final Set<Event> eventsToCreate = new LinkedHashSet<>();
+        for (final Event newEvent : newEvents) {
+            if (!existingEvents.contains(newEvent)) {
+                eventsToCreate.add(newEvent);
+            }
+        }
+        try {
+            this.eventRepository.insertAll(eventsToCreate);
+        } catch (DataIntegrityViolationException e) {
+            if (isViolationOf(e, "events_uk")) {
+                throw new ConcurrentEventCreationException(e);
+            }
+            throw e;
+        }
+        return new ArrayList<>(eventsToCreate);
+    }
+
+    /**
+     * Registers many persons at once for an event. The event is locked for the duration of the transaction, already
+     * registered emails are looked up with one query, the seats are claimed with one update and all new registrations
+     * are inserted in batches. Persons are registered in the given order until the event is full.
+     *
+     * @param event
+     * @param persons The persons to register for the event
+     * @return The outcome for each person, in order
+     */
+    @Timed("events.service")
+    @CacheEvict(key = "#event.heldOn.toString() + '/' + #event.name")
+    public List<RegistrationOutcome> registerAll(final Event event, final List<Person> persons) {
+        final Event persistentEvent =
+              this.eventRepository.findOneForUpdateByHeldOnAndName(event.getHeldOn(), event.getName())
+                  .orElseThrow(NoSuchEventException::new);
+        if (persons.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        final List<Registration> candidates = persons.stream().map(Registration::new).collect(toList());
+        final List<RegistrationOutcome> outcomes = claimSeatsFor(persistentEvent, candidates);
+        countRegistrations(outcomes);
+        return outcomes;
+    }
+
+    /**
+     * Registers many persons at once for an event and puts those who didn't get a seat on its waitlist, in the given
+     * order. Works like {@link #registerAll(Event, List)}, the persons on the waitlist are looked up with one query and
+     * inserted in batches as well. Persons already on the waitlist are reported as duplicates.
+     *
+     * @param event
+     * @param persons The persons to register for the event
+     * @return The outcome for each person, in order, either registered, waitlisted or duplicate
+     */
+    @Timed("events.service")
+    @CacheEvict(key = "#event.heldOn.toString() + '/' + #event.name")
+    public List<RegistrationOutcome> registerAllOrWaitlist(final Event event, final List<Person> persons) {
+        final Event persistentEvent =
+              this.eventRepository.findOneForUpdateByHeldOnAndName(event.getHeldOn(), event.getName())
+                  .orElseThrow(NoSuchEventException::new);
+        if (persons.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        final List<Registration> candidates = persons.stream().map(Registration::new).collect(toList());
+        final List<RegistrationOutcome> outcomes = claimSeatsFor(persistentEvent, candidates);
+        final Set<String> latecomers = IntStream.range(0, outcomes.size())
+            .filter(i -> outcomes.get(i) == RegistrationOutcome.full)
+            .mapToObj(i -> candidates.get(i).getEmail())
+            .collect(toSet());
+        if (!latecomers.isEmpty()) {
+            final Set<String> waitlistedEmails
+                = new HashSet<>(this.eventRepository.findWaitlistedEmails(persistentEvent, latecomers));
+            final List<Registration> newEntries = new ArrayList<>();
+            for (int i = 0; i < outcomes.size(); ++i) {
+                if (outcomes.get(i) != RegistrationOutcome.full) {
+                    continue;
+                }
+                if (waitlistedEmails.contains(candidates.get(i).getEmail())) {
+                    outcomes.set(i, RegistrationOutcome.duplicate);
+                } else {
+                    outcomes.set(i, RegistrationOutcome.waitlisted);
+                    newEntries.add(candidates.get(i));
+                }
+            }
+            if (!newEntries.isEmpty()) {
+                this.eventRepository.addAllToWaitlist(persistentEvent, newEntries);
+            }
+        }
+        countRegistrations(outcomes);
+        return outcomes;
+    }
+
+    /**
+     * Claims the seats for the given candidates on a locked event and inserts the new registrations.
+     *
+     * @param persistentEvent The locked event
+     * @param candidates      Registrations to check
+     * @return The outcome for each candidate, in order
+     */
+    private List<RegistrationOutcome> claimSeatsFor(final Event persistentEvent, final List<Registration> candidates) {
+        final List<String> registeredEmails = this.eventRepository.findRegisteredEmails(
+            persistentEvent, candidates.stream().map(Registration::getEmail).collect(toSet()));
+        final List<Registration> newRegistrations = new ArrayList<>();
+        final List<RegistrationOutcome> outcomes;
+        try {
+            outcomes = persistentEvent.claimSeatsFor(candidates, registeredEmails, newRegistrations::add);
+        } catch (IllegalStateException e) {
+            countRegistrations(outcomeOfRejected(persistentEvent), candidates.size());
+            throw e;
+        }
+        if (!newRegistrations.isEmpty()) {
+            if (this.eventRepository.claimSeats(persistentEvent, newRegistrations.size()) == 0) {
+                // Duplicates stay duplicates, everyone else would have needed one of the seats
+                countRegistrations(outcomes.stream()
+                    .map(outcome -> outcome == RegistrationOutcome.duplicate ? outcome : RegistrationOutcome.full)
+                    .collect(toList()));
+                throw new IllegalStateException("Cannot register for a full event.");
+            }
+            this.eventRepository.addRegistrations(persistentEvent, newRegistrations);
+        }
+        return outcomes;
+    }
+
+    /**
+     * Registers for an event or puts the person on its waitlist if the event is full. The registrations of the event
+     * are neither loaded nor rewritten, a free seat is claimed through an atomic, conditional update of the counter on
+     * the event without locking it, so that concurrent registrations cannot oversell an event. Joining the waitlist
+     * locks the event, so that it is serialized with cancellations: A seat that has been freed in the meantime is
+     * claimed right away, otherwise the next cancellation promotes the first person of the waitlist.
      *
      * @param event
      * @param person The person to register for the event
-     * @return The confirmed registration
+     * @return Either {@link RegistrationOutcome#registered} or {@link RegistrationOutcome#waitlisted}
+     */
+    @Timed("events.service")
+    @CacheEvict(key = "#event.heldOn.toString() + '/' + #event.name")
+    public RegistrationOutcome registerOrWaitlist(final Event event, final Person person) {
+        final Event persistentEvent =
+              this.eventRepository.findOneByHeldOnAndName(event.getHeldOn(), event.getName())
+                  .orElseThrow(NoSuchEventException::new);
+        try {
+            final Registration registration = persistentEvent.claimSeatFor(person,
+                newRegistration -> this.eventRepository.isRegistered(persistentEvent, newRegistration.getEmail()));
+            if (this.eventRepository.claimSeat(persistentEvent) == 1) {
+                this.eventRepository.addRegistration(persistentEvent, registration);
+                countRegistrations(CountedOutcome.registered, 1);
+                return RegistrationOutcome.registered;
+            }
+        } catch (IllegalArgumentException e) {
+            countRegistrations(CountedOutcome.duplicate, 1);
+            throw e;
+        } catch (IllegalStateException e) {
+            if (persistentEvent.isClosed() || persistentEvent.isPastEvent()) {
+                countRegistrations(outcomeOfRejected(persistentEvent), 1);
+                throw e;
+            }
+        }
+        return joinWaitlist(persistentEvent, new Registration(person));
+    }
+
+    private RegistrationOutcome joinWaitlist(final Event event, final Registration registration) {
+        // The event may have been closed between loading and locking it
+        if (this.eventRepository.findStatusForUpdate(event) == Event.Status.closed) {
+            countRegistrations(CountedOutcome.closed, 1);
+            throw new IllegalStateException("Cannot register for a closed event.");
+        }
+        if (this.eventRepository.isRegistered(event, registration.getEmail())
+            || this.eventRepository.isWaitlisted(event, registration.getEmail())) {
+            countRegistrations(CountedOutcome.duplicate, 1);
+            throw new IllegalArgumentException("Already registered with email-address " + registration.getEmail());
+        }
+
+        final RegistrationOutcome outcome;
+        if (this.eventRepository.claimSeat(event) == 1) {
+            this.eventRepository.addRegistration(event, registration);
+            outcome = RegistrationOutcome.registered;
+        } else {
+            this.eventRepository.addToWaitlist(event, registration);
+            outcome = RegistrationOutcome.waitlisted;
+        }
+        countRegistrations(CountedOutcome.of(outcome), 1);
+        return outcome;
+    }
+
+    /**
+     * Cancels the registration of a person or removes the person from the waitlist. The event is locked, so that the
+     * seat of a cancelled registration goes to the first person on the waitlist exactly once, in the same transaction.
+     *
+     * @param event
+     * @param email The email the person has registered with
      */
-    public Registration registerFor(final Event event, final Person person) {
+    @Timed("events.service")
+    @CacheEvict(key = "#event.heldOn.toString() + '/' + #event.name")
+    public void cancelRegistration(final Event event, final String email) {
         final Event persistentEvent =
-              this.eventRepository.findOne(event.asExample()).orElseThrow(NoSuchEventException::new);
-        return persistentEvent.register(person);
+              this.eventRepository.findOneForUpdateByHeldOnAndName(event.getHeldOn(), event.getName())
+                  .orElseThrow(NoSuchEventException::new);
+        final String normalizedEmail = email.toLowerCase(Locale.ENGLISH);
+        if (this.eventRepository.removeRegistration(persistentEvent, normalizedEmail) == 0) {
+            if (this.eventRepository.removeFromWaitlist(persistentEvent, normalizedEmail) == 0) {
+                throw new NoSuchRegistrationException();
+            }
+            return;
+        }
+
+        this.eventRepository.releaseSeat(persistentEvent);
+        if (persistentEvent.isOpen() && !persistentEvent.isPastEvent()) {
+            promoteFirstFromWaitlist(persistentEvent);
+        }
+    }
+
+    private void promoteFirstFromWaitlist(final Event event) {
+        final int promoted = this.eventRepository.addRegistrationsFromWaitlist(event, 1);
+        if (promoted > 0) {
+            if (this.eventRepository.claimSeats(event, promoted) == 0) {
+                throw new IllegalStateException("Cannot promote from the waitlist of a full event.");
+            }
+            this.eventRepository.removeFirstFromWaitlist(event, promoted);
+            countRegistrations(CountedOutcome.promoted, promoted);
+        }
+    }
+
+    /**
+     * Closes an event for further registrations.
+     *
+     * @param heldOn
+     * @param name
+     * @return The closed event
+     */
+    @Timed("events.service")
+    @CacheEvict(key = "#heldOn.toString() + '/' + #name")
+    public Event closeEvent(final LocalDate heldOn, final String name) {
+        final Event event = this.eventRepository.findOneByHeldOnAndName(heldOn, name)
+            .orElseThrow(NoSuchEventException::new);
+        event.close();
+        return event;
+    }
+
+    /**
+     * Loads the registrations of an event without initializing its collection, so that this works with cached,
+     * detached events as well.
+     *
+     * @param event
+     * @return The registrations of the given event
+     */
+    @Timed("events.service")
+    public List<Registration> getRegistrations(final Event event) {
+        return this.eventRepository.findAllRegistrations(event);
+    }
+
+    /**
+     * Hands the registrations of an event one by one to the given consumer while they are read from the database, so
+     * that they never have to be held in memory all at once.
+     *
+     * @param event
+     * @param consumer Consumer for each registration of the given event
+     */
+    @Timed("events.service")
+    public void streamRegistrations(final Event event, final Consumer<Registration> consumer) {
+        try (Stream<Registration> registrations = this.eventRepository.streamAllRegistrations(event)) {
+            registrations.forEach(consumer);
+        }
+    }
+
+    /**
+     * @param limit Maximum number of events to return
+     * @return the first open events in the future, ordered by date and name
+     */
+    @Timed("events.service")
+    public List<Event> getOpenEvents(final int limit) {
+        return this.eventRepository.findOpenEvents(PageRequest.of(0, limit));
+    }
+
+    /**
+     * @param heldOn Date of the event to start after
+     * @param name   Name of the event to start after
+     * @param limit  Maximum number of events to return
+     * @return the open events following the given one, ordered by date and name
+     */
+    @Timed("events.service")
+    public List<Event> getOpenEventsAfter(final LocalDate heldOn, final String name, final int limit) {
+        return this.eventRepository.findOpenEventsAfter(heldOn, name, PageRequest.of(0, limit));
+    }
+
+    /**
+     * @param heldOn Date of the event to end before
+     * @param name   Name of the event to end before
+     * @param limit  Maximum number of events to return
+     * @return the open events directly preceding the given one, ordered by date and name
+     */
+    @Timed("events.service")
+    public List<Event> getOpenEventsBefore(final LocalDate heldOn, final String name, final int limit) {
+        final List<Event> events
+            = new ArrayList<>(this.eventRepository.findOpenEventsBefore(heldOn, name, PageRequest.of(0, limit)));
+        Collections.reverse(events);
+        return events;
+    }
+
+    /**
+     * Determines why a person has been rejected by an event, checking the conditions in the same order as the event.
+     *
+     * @param event The event that rejected the registration
+     * @return The outcome to count
+     */
+    private static CountedOutcome outcomeOfRejected(final Event event) {
+        if (event.isClosed()) {
+            return CountedOutcome.closed;
+        } else if (event.isPastEvent()) {
+            return CountedOutcome.past;
+        } else {
+            return CountedOutcome.full;
+        }
+    }
+
+    private void countRegistrations(final CountedOutcome outcome, final long amount) {
+        Counter.builder("events.registrations")
+            .description("The outcomes of attempts to register a person for an event")
+            .tag("outcome", outcome.name())
+            .register(this.meterRegistry)
+            .increment(amount);
+    }
+
+    private void countRegistrations(final List<RegistrationOutcome> outcomes) {
+        outcomes.stream()
+            .collect(groupingBy(CountedOutcome::of, counting()))
+            .forEach(this::countRegistrations);
     }
 
     /**
-     * @return a list of open events in the future
+     * Hibernate cannot always extract the name of the violated constraint, i.e. not from batch updates, so the message
+     * of the root cause is checked as well. H2 reports the index backing a constraint ({@literal EVENTS_UK_INDEX_7}),
+     * so the name is checked case insensitive and only needs to be contained.
      */
-    public List<Event> getOpenEvents() {
-        return this.eventRepository.findAllOpenEvents();
+    private static boolean isViolationOf(final DataIntegrityViolationException e, final String constraintName) {
+        final Throwable cause = e.getCause();
+        String violatedConstraint = null;
+        if (cause instanceof ConstraintViolationException) {
+            violatedConstraint = ((ConstraintViolationException) cause).getConstraintName();
+        }
+        if (violatedConstraint == null) {
+            violatedConstraint = e.getMostSpecificCause().getMessage();
+        }
+        return violatedConstraint != null
+            && violatedConstraint.toLowerCase(Locale.ENGLISH).contains(constraintName);
     }
     // tag::event-repository-usage[]
 }
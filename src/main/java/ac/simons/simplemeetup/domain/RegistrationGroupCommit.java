@@ -0,0 +1,226 @@
+/*
+ * Copyright 2026 michael-simons.eu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.simplemeetup.domain;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Coalesces concurrent registrations for the same event into one transaction. Each caller queues its registration
+ * with the event. The first caller finding no transaction in flight for the event becomes the leader: It optionally
+ * waits for a short window, takes all queued registrations up to a maximum and writes them with one call to
+ * {@link EventService#registerAllOrWaitlist(Event, List)}. Callers arriving while a transaction is in flight wait
+ * and are written with the next one, so the batches grow with the load on an event without delaying a single
+ * registration.
+ * <p>
+ * Writing a batch locks the event, which pays off only for more than one registration. A single registration is
+ * written through {@link EventService#registerOrWaitlist(Event, Person)}, which claims a free seat without locking
+ * the event and locks it only to join the waitlist.
+ * <p>
+ * Every caller waits for the outcome of its own registration, so the registration is still synchronous.
+ *
+ * @author Michael J. Simons, 2026-10-18
+ */
+public final class RegistrationGroupCommit {
+
+    /**
+     * Waiting callers check for a transaction in flight at least that often, so that no caller waits forever on a
+     * missed wake up.
+     */
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /**
+     * Maximum number of events with groups at the same time, so that a flood of registrations for many different
+     * events cannot exhaust the memory.
+     */
+    private static final long MAX_GROUPS = 10_000;
+
+    private final EventService eventService;
+
+    private final int maxBatchSize;
+
+    private final long windowNanos;
+
+    /**
+     * Groups are not needed anymore once there are no more registrations for an event. A group that is evicted while
+     * in use only prevents coalescing with the next group for the same event.
+     */
+    private final Cache<String, Group> groups = Caffeine.newBuilder()
+        .maximumSize(MAX_GROUPS)
+        .expireAfterAccess(1, TimeUnit.MINUTES)
+        .build();
+
+    /**
+     * @param eventService Used to write the registrations
+     * @param maxBatchSize Maximum number of registrations written in one transaction
+     * @param windowNanos  Time in nanoseconds the leader waits for more registrations before writing, may be 0
+     */
+    public RegistrationGroupCommit(final EventService eventService, final int maxBatchSize, final long windowNanos) {
+        this.eventService = eventService;
+        this.maxBatchSize = maxBatchSize;
+        this.windowNanos = windowNanos;
+    }
+
+    /**
+     * Registers for an event or puts the person on its waitlist if the event is full, together with all concurrent
+     * registrations for the same event.
+     *
+     * @param event
+     * @param person The person to register for the event
+     * @return Either {@link RegistrationOutcome#registered} or {@link RegistrationOutcome#waitlisted}
+     * @throws IllegalArgumentException if the person has already been registered or put on the waitlist
+     * @throws IllegalStateException    if the event doesn't accept registrations
+     * @throws NoSuchEventException     if there is no such event
+     */
+    public RegistrationOutcome registerOrWaitlist(final Event event, final Person person) {
+        final Group group = this.groups.get(event.getHeldOn() + "/" + event.getName(), key -> new Group());
+        final PendingRegistration pendingRegistration = new PendingRegistration(event, person);
+        group.pendingRegistrations.add(pendingRegistration);
+        while (!pendingRegistration.done) {
+            if (group.writing.compareAndSet(false, true)) {
+                try {
+                    write(group);
+                } finally {
+                    group.writing.set(false);
+                }
+                final PendingRegistration next = group.pendingRegistrations.peek();
+                if (next != null) {
+                    LockSupport.unpark(next.caller);
+                }
+            } else {
+                LockSupport.parkNanos(this, MAX_PARK_NANOS);
+            }
+        }
+        return pendingRegistration.getOutcome();
+    }
+
+    private void write(final Group group) {
+        if (this.windowNanos > 0) {
+            LockSupport.parkNanos(this, this.windowNanos);
+        }
+        final List<PendingRegistration> batch = new ArrayList<>();
+        while (batch.size() < this.maxBatchSize && !group.pendingRegistrations.isEmpty()) {
+            batch.add(group.pendingRegistrations.poll());
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            if (batch.size() == 1) {
+                final PendingRegistration single = batch.get(0);
+                single.complete(this.eventService.registerOrWaitlist(single.event, single.person), null);
+                return;
+            }
+            final List<RegistrationOutcome> outcomes = this.eventService.registerAllOrWaitlist(
+                batch.get(0).event, batch.stream().map(PendingRegistration::getPerson).collect(toList()));
+            for (int i = 0; i < batch.size(); ++i) {
+                batch.get(i).complete(outcomes.get(i), null);
+            }
+        } catch (RuntimeException e) {
+            batch.stream().filter(pending -> !pending.done).forEach(pending -> pending.complete(null, failureFor(e)));
+        } finally {
+            batch.stream().filter(pending -> !pending.done).forEach(pending ->
+                pending.complete(null, new IllegalStateException("Registration has not been written.")));
+        }
+    }
+
+    /**
+     * Exceptions are mutable and must not be thrown by more than one caller, so each caller gets an exception of its
+     * own, caused by the original one. The types callers may react on are kept.
+     *
+     * @param failure The failure of a whole batch
+     * @return A new exception for one caller
+     */
+    static RuntimeException failureFor(final RuntimeException failure) {
+        final RuntimeException callersFailure;
+        if (failure instanceof NoSuchEventException) {
+            callersFailure = new NoSuchEventException();
+        } else if (failure instanceof IllegalArgumentException) {
+            callersFailure = new IllegalArgumentException(failure.getMessage());
+        } else if (failure instanceof IllegalStateException) {
+            callersFailure = new IllegalStateException(failure.getMessage());
+        } else {
+            callersFailure = new IllegalStateException("Registration has not been written.");
+        }
+        callersFailure.initCause(failure);
+        return callersFailure;
+    }
+
+    /**
+     * The registrations queued for one event and whether a transaction is in flight for them.
+     */
+    private static final class Group {
+
+        private final Queue<PendingRegistration> pendingRegistrations = new ConcurrentLinkedQueue<>();
+
+        private final AtomicBoolean writing = new AtomicBoolean();
+    }
+
+    private static final class PendingRegistration {
+
+        private final Thread caller = Thread.currentThread();
+
+        private final Event event;
+
+        private final Person person;
+
+        private RegistrationOutcome outcome;
+
+        private RuntimeException failure;
+
+        /**
+         * Written last by the leader and read first by the caller, so that outcome and failure are visible as well.
+         */
+        private volatile boolean done;
+
+        PendingRegistration(final Event event, final Person person) {
+            this.event = event;
+            this.person = person;
+        }
+
+        Person getPerson() {
+            return person;
+        }
+
+        void complete(final RegistrationOutcome newOutcome, final RuntimeException newFailure) {
+            this.outcome = newOutcome;
+            this.failure = newFailure;
+            this.done = true;
+            LockSupport.unpark(this.caller);
+        }
+
+        RegistrationOutcome getOutcome() {
+            if (this.failure != null) {
+                throw this.failure;
+            }
+            if (this.outcome == RegistrationOutcome.duplicate) {
+                throw new IllegalArgumentException("Already registered with email-address " + this.person.getEmail());
+            }
+            return this.outcome;
+        }
+    }
+}
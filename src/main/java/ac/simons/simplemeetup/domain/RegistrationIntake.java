@@ -0,0 +1,225 @@
+/*
+ * Copyright 2026 michael-simons.eu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.simplemeetup.domain;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Accepts registrations into a bounded queue and writes them behind. A single thread drains the queue in batches and
+ * registers the persons of each batch with one call to {@link EventService#registerAll(Event, List)} per event, that
+ * is with one transaction per event and batch. Bursts of registrations are thus absorbed by the queue instead of
+ * holding a request thread and a connection each.
+ * <p>
+ * The requests are kept for some time after they have been processed, so that their status can be queried. Requests
+ * that could not be processed due to an unexpected error are logged and counted as
+ * {@literal events.registrations.failed}.
+ * <p>
+ * On shutdown, no more requests are accepted and the writer processes the pending ones. Requests the writer doesn't
+ * get to in time are rejected, so that no accepted request stays pending forever.
+ *
+ * @author Michael J. Simons, 2026-10-18
+ */
+@Slf4j
+public final class RegistrationIntake implements DisposableBean {
+
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+
+    private final EventService eventService;
+
+    private final int capacity;
+
+    private final int batchSize;
+
+    private final BlockingQueue<RegistrationRequest> pendingRequests;
+
+    private final Cache<String, RegistrationRequest> requests;
+
+    private final Counter failedRequests;
+
+    private final ExecutorService writer;
+
+    /**
+     * Guards {@link #running}: Requests are offered under the read lock, so that no request is accepted once the
+     * intake has been stopped under the write lock.
+     */
+    private final ReadWriteLock lifecycleLock = new ReentrantReadWriteLock();
+
+    private volatile boolean running = true;
+
+    /**
+     * @param eventService Used to register the persons
+     * @param capacity     Maximum number of pending requests
+     * @param batchSize    Maximum number of requests processed at once
+     * @param retention     Minutes a request is kept after it has been accepted and again after it has been processed
+     * @param meterRegistry The registry failed requests are counted with
+     */
+    public RegistrationIntake(
+        final EventService eventService, final int capacity, final int batchSize, final long retention,
+        final MeterRegistry meterRegistry
+    ) {
+        this.eventService = eventService;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.pendingRequests = new ArrayBlockingQueue<>(capacity);
+        this.requests = Caffeine.newBuilder().expireAfterWrite(retention, TimeUnit.MINUTES).build();
+        this.failedRequests = Counter.builder("events.registrations.failed")
+            .description("Registrations that could not be written due to an unexpected error")
+            .register(meterRegistry);
+        this.writer = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("registration-intake-"));
+        this.writer.execute(this::writeBehind);
+    }
+
+    /**
+     * Accepts a request to register a person for an event.
+     *
+     * @param event  The event to register for
+     * @param person The person to register
+     * @return The pending request
+     * @throws RegistrationIntakeFullException if the maximum number of pending requests has been reached
+     */
+    public RegistrationRequest submit(final Event event, final Person person) {
+        final RegistrationRequest request = new RegistrationRequest(event, person);
+        this.requests.put(request.getId(), request);
+        final Lock lock = this.lifecycleLock.readLock();
+        lock.lock();
+        try {
+            if (!this.running || !this.pendingRequests.offer(request)) {
+                this.requests.invalidate(request.getId());
+                throw new RegistrationIntakeFullException(this.capacity);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return request;
+    }
+
+    /**
+     * @param id
+     * @return The request with the given id, if it is still retained
+     */
+    public Optional<RegistrationRequest> getRequest(final String id) {
+        return Optional.ofNullable(this.requests.getIfPresent(id));
+    }
+
+    /**
+     * @return The number of requests waiting for being processed
+     */
+    public int getNumberOfPendingRequests() {
+        return this.pendingRequests.size();
+    }
+
+    private void writeBehind() {
+        final List<RegistrationRequest> batch = new ArrayList<>(this.batchSize);
+        while (this.running || !this.pendingRequests.isEmpty()) {
+            try {
+                final RegistrationRequest first = this.pendingRequests.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                this.pendingRequests.drainTo(batch, this.batchSize - 1);
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Registers the persons of the given requests, with one call to the service for each event. The requests are
+     * retained again once they have been processed, so that their outcome can be queried for the full retention time.
+     *
+     * @param batch Requests to process, in order
+     */
+    void process(final List<RegistrationRequest> batch) {
+        final Map<Event, List<RegistrationRequest>> requestsByEvent
+            = batch.stream().collect(groupingBy(RegistrationRequest::getEvent, LinkedHashMap::new, toList()));
+        requestsByEvent.forEach((event, requestsForEvent) -> {
+            try {
+                final List<RegistrationOutcome> outcomes = this.eventService.registerAll(event,
+                    requestsForEvent.stream().map(RegistrationRequest::getPerson).collect(toList()));
+                for (int i = 0; i < outcomes.size(); ++i) {
+                    requestsForEvent.get(i).complete(outcomes.get(i));
+                }
+            } catch (NoSuchEventException e) {
+                requestsForEvent.forEach(request -> request.reject("No such event."));
+            } catch (IllegalStateException e) {
+                requestsForEvent.forEach(request -> request.reject(e.getMessage()));
+            } catch (RuntimeException e) {
+                final List<RegistrationRequest> failed = requestsForEvent.stream()
+                    .filter(request -> request.getStatus() == RegistrationRequest.Status.pending)
+                    .collect(toList());
+                log.error("Could not register {} persons for {}", failed.size(), event, e);
+                this.failedRequests.increment(failed.size());
+                failed.forEach(request -> request.reject("Could not register."));
+            }
+            requestsForEvent.forEach(request -> this.requests.put(request.getId(), request));
+        });
+    }
+
+    /**
+     * Stops accepting requests and waits for the writer to process the pending ones before the application shuts down.
+     * Requests still pending after that are rejected. They are not written here, as the writer may still be busy with
+     * a batch.
+     *
+     * @throws InterruptedException if interrupted while waiting for the writer
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        final Lock lock = this.lifecycleLock.writeLock();
+        lock.lock();
+        try {
+            this.running = false;
+        } finally {
+            lock.unlock();
+        }
+        this.writer.shutdown();
+        this.writer.awaitTermination(POLL_TIMEOUT_MILLIS * 10, TimeUnit.MILLISECONDS);
+
+        final List<RegistrationRequest> leftovers = new ArrayList<>();
+        this.pendingRequests.drainTo(leftovers);
+        if (!leftovers.isEmpty()) {
+            log.warn("Rejecting {} registrations that have not been written before shutdown", leftovers.size());
+            leftovers.forEach(request -> request.reject("Registration intake has been shut down."));
+        }
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2026 michael-simons.eu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.simplemeetup.domain;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when the {@link RegistrationIntake} cannot accept any more requests.
+ *
+ * @author Michael J. Simons, 2026-10-18
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class RegistrationIntakeFullException extends RuntimeException {
+
+    private static final long serialVersionUID = 4384063937285411386L;
+
+    public RegistrationIntakeFullException(final int capacity) {
+        super(String.format("No more than %d registrations can be pending.", capacity));
+    }
+}
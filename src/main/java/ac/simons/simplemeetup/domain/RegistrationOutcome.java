@@ -0,0 +1,41 @@
+/*
+ * Copyright 2026 michael-simons.eu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.simplemeetup.domain;
+
+/**
+ * The outcome of registering a single person, either as part of registering many persons at once or with the option
+ * to join the waitlist.
+ *
+ * @author Michael J. Simons, 2026-10-18
+ */
+public enum RegistrationOutcome {
+    /**
+     * The person has been registered.
+     */
+    registered,
+    /**
+     * The email of the person has already been registered, before or earlier in the same batch.
+     */
+    duplicate,
+    /**
+     * There was no free seat left for the person.
+     */
+    full,
+    /**
+     * There was no free seat left, the person has been put on the waitlist of the event.
+     */
+    waitlisted
+}
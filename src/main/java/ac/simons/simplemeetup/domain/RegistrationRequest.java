@@ -0,0 +1,110 @@
+/*
+ * Copyright 2026 michael-simons.eu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.simplemeetup.domain;
+
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * A request to register a person for an event that has been accepted by the {@link RegistrationIntake} and is processed
+ * asynchronously. The status changes exactly once, from {@link Status#pending} to the outcome of the request.
+ *
+ * @author Michael J. Simons, 2026-10-18
+ */
+@Getter
+public final class RegistrationRequest {
+
+    /**
+     * The status of a request, either pending or one of the outcomes of registering a person.
+     */
+    public enum Status {
+        /**
+         * The request waits for being processed.
+         */
+        pending,
+        /**
+         * The person has been registered.
+         */
+        registered,
+        /**
+         * The email of the person has already been registered.
+         */
+        duplicate,
+        /**
+         * There was no free seat left for the person.
+         */
+        full,
+        /**
+         * The event doesn't accept registrations, see the message for the reason.
+         */
+        rejected
+    }
+
+    private final String id;
+
+    private final Event event;
+
+    private final Person person;
+
+    private volatile Status status = Status.pending;
+
+    private volatile String message;
+
+    public RegistrationRequest(final Event event, final Person person) {
+        this.id = UUID.randomUUID().toString();
+        this.event = event;
+        this.person = person;
+    }
+
+    /**
+     * Completes this request with the outcome of registering the person. The intake registers without a waitlist.
+     *
+     * @param outcome The outcome of registering the person
+     * @throws IllegalArgumentException if the outcome is not supported by the intake
+     */
+    void complete(final RegistrationOutcome outcome) {
+        switch (outcome) {
+            case registered:
+                changeStatus(Status.registered, null);
+                break;
+            case duplicate:
+                changeStatus(Status.duplicate, null);
+                break;
+            case full:
+                changeStatus(Status.full, null);
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported outcome " + outcome);
+        }
+    }
+
+    void reject(final String reason) {
+        changeStatus(Status.rejected, reason);
+    }
+
+    /**
+     * Requests are only changed by the writing thread of the intake, but a pending request must not be completed
+     * twice, i.e. rejected after an error while completing the other requests of a batch.
+     */
+    private void changeStatus(final Status newStatus, final String newMessage) {
+        if (this.status != Status.pending) {
+            return;
+        }
+        this.message = newMessage;
+        this.status = newStatus;
+    }
+}
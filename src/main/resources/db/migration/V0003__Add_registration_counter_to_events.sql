@@ -0,0 +1,5 @@
+alter table events add column number_of_registrations integer not null default 0;
+
+update events set number_of_registrations = (
+  select count(*) from registrations r where r.event_id = events.id
+);
\ No newline at end of file
@@ -0,0 +1,12 @@
+create table waitlist (
+  id                 serial primary key,
+  event_id           integer not null,
+  email              varchar(1024) not null,
+  name               varchar(512) not null,
+  CONSTRAINT waitlist_events_fk FOREIGN KEY (event_id) REFERENCES events(id),
+  CONSTRAINT waitlist_uk UNIQUE (event_id, email)
+);
+
+create index waitlist_event_idx on waitlist (event_id, id);
+
+alter table events add column number_of_cancellations integer not null default 0;
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2026 michael-simons.eu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.simplemeetup.app;
+
+import ac.simons.simplemeetup.domain.Event;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.hateoas.Link;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
+import static org.springframework.hateoas.mvc.ControllerLinkBuilder.methodOn;
+
+/**
+ * @author Michael J. Simons, 2026-10-18
+ */
+public class EventLinksTest {
+
+    @Before
+    public void bindRequest() {
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setServerName("meetup.example.com");
+        request.setContextPath("/meetup");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @After
+    public void resetRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void linksShouldBeTheSameAsThroughMethodInvocations() {
+        final LocalDate heldOn = LocalDate.now().plusDays(1);
+        Stream.of("Event-1", "Spring Meetup", "\u00dcml\u00e4\u00fcte & more", "100%", "a/b", "What?#", "a+b;c=d")
+            .map(name -> new Event(heldOn, name))
+            .forEach(event -> {
+                final EventLinks eventLinks = EventLinks.forCurrentRequest();
+
+                assertThat(eventLinks.linkToEvent(event, Link.REL_SELF))
+                    .isEqualTo(linkTo(methodOn(EventsApi.class)
+                        .event(event.getHeldOn(), event.getName(), null)).withSelfRel());
+                assertThat(eventLinks.linkToRegistrations(event, "registrations"))
+                    .isEqualTo(linkTo(methodOn(EventsApi.class)
+                        .registrations(event.getHeldOn(), event.getName(), null, null)).withRel("registrations"));
+            });
+    }
+}
@@ -16,8 +16,15 @@
 package ac.simons.simplemeetup.app;
 
 import ac.simons.simplemeetup.config.JacksonConfig;
+import ac.simons.simplemeetup.config.RegistrationGroupCommitConfig;
+import ac.simons.simplemeetup.domain.ConcurrentEventCreationException;
 import ac.simons.simplemeetup.domain.Event;
 import ac.simons.simplemeetup.domain.EventService;
+import ac.simons.simplemeetup.domain.NoSuchRegistrationException;
+import ac.simons.simplemeetup.domain.Person;
+import ac.simons.simplemeetup.domain.Registration;
+import ac.simons.simplemeetup.domain.RegistrationOutcome;
+import com.jayway.jsonpath.JsonPath;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -26,14 +33,30 @@ import org.springframework.boot.test.autoconfigure.restdocs.AutoConfigureRestDoc
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.restdocs.hypermedia.LinksSnippet;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.hateoas.MediaTypes.HAL_JSON;
 import static org.springframework.restdocs.hypermedia.HypermediaDocumentation.linkWithRel;
@@ -45,7 +68,15 @@ import static org.springframework.restdocs.operation.preprocess.Preprocessors.pr
 import static org.springframework.restdocs.payload.PayloadDocumentation.fieldWithPath;
 import static org.springframework.restdocs.payload.PayloadDocumentation.responseFields;
 import static org.springframework.restdocs.payload.PayloadDocumentation.subsectionWithPath;
+import static org.springframework.restdocs.request.RequestDocumentation.parameterWithName;
+import static org.springframework.restdocs.request.RequestDocumentation.requestParameters;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
@@ -56,7 +87,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @WebMvcTest(controllers = EventsApi.class) // <2>
 @AutoConfigureRestDocs // <3>
 // end::domain-usage-single-event-test[]
-@Import(JacksonConfig.class)
+@Import({JacksonConfig.class, RegistrationGroupCommitConfig.class})
 // tag::domain-usage-single-event-test[]
 public class EventsApiTest {
 
@@ -73,8 +104,12 @@ public class EventsApiTest {
     public void initializeMocks() {
         final Event event1 = new Event(LocalDate.now(), "Event-1");
         // end::domain-usage-single-event-test[]
-        when(eventService.getOpenEvents())
+        when(eventService.getOpenEvents(21))
             .thenReturn(Arrays.asList(event1, new Event(LocalDate.now().plusDays(1), "Event-2")));
+        when(eventService.getOpenEvents(2))
+            .thenReturn(Arrays.asList(event1, new Event(LocalDate.now().plusDays(1), "Event-2")));
+        when(eventService.getOpenEventsAfter(event1.getHeldOn(), event1.getName(), 2))
+            .thenReturn(Collections.singletonList(new Event(LocalDate.now().plusDays(1), "Event-2")));
         // tag::domain-usage-single-event-test[]
         when(eventService.getEvent(event1.getHeldOn(), event1.getName()))
             .thenReturn(Optional.of(event1));
@@ -97,6 +132,45 @@ public class EventsApiTest {
 
     }
 
+    @Test
+    public void eventsShouldBePaged() throws Exception {
+        final MvcResult firstPage = this.mockMvc
+            .perform(get("/api/events").param("size", "1").accept(HAL_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("_embedded.events.length()").value(1))
+            .andExpect(jsonPath("_embedded.events[0].name").value("Event-1"))
+            .andExpect(jsonPath("_links.prev").doesNotExist())
+            .andReturn();
+
+        final String next = JsonPath.read(firstPage.getResponse().getContentAsString(), "_links.next.href");
+        this.mockMvc
+            .perform(get(next).accept(HAL_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("_embedded.events.length()").value(1))
+            .andExpect(jsonPath("_embedded.events[0].name").value("Event-2"))
+            .andExpect(jsonPath("_links.next").doesNotExist())
+            .andDo(document("get-events-page",
+                preprocessRequest(prettyPrint()),
+                preprocessResponse(prettyPrint()),
+                selfLink.and(
+                    linkWithRel("prev").description("The previous page of events.").optional(),
+                    linkWithRel("next").description("The next page of events.").optional()),
+                requestParameters(
+                    parameterWithName("size").description("Number of events per page, at most 100."),
+                    parameterWithName("after").description("Cursor to the event after which the page starts.")
+                        .optional(),
+                    parameterWithName("before").description("Cursor to the event before which the page ends.")
+                        .optional()
+                )));
+    }
+
+    @Test
+    public void invalidCursorsShouldBeRejected() throws Exception {
+        this.mockMvc
+            .perform(get("/api/events").param("after", "invalid").accept(HAL_JSON))
+            .andExpect(status().isBadRequest());
+    }
+
     // tag::domain-usage-single-event-test[]
     @Test
     public void eventShouldWork() throws Exception {
@@ -106,6 +180,12 @@ public class EventsApiTest {
                     LocalDate.now(), "Event-1"
                 ).accept(HAL_JSON)) // <5>
             .andExpect(status().isOk()) // <6>
+            // end::domain-usage-single-event-test[]
+            .andExpect(jsonPath("_links.self.href")
+                .value("http://localhost:8080/api/events/" + LocalDate.now() + "/Event-1"))
+            .andExpect(jsonPath("_links.registrations.href")
+                .value("http://localhost:8080/api/events/" + LocalDate.now() + "/Event-1/registrations"))
+            // tag::domain-usage-single-event-test[]
             .andDo(document("get-event", // <7>
                 // end::domain-usage-single-event-test[]
                 preprocessRequest(prettyPrint()),
@@ -122,5 +202,244 @@ public class EventsApiTest {
                         .description("Links to other resources")
                 )));
     }
+
+    @Test
+    public void eventShouldSupportConditionalRequests() throws Exception {
+        final String entityTag = this.mockMvc
+            .perform(get("/api/events/{heldOn}/{name}", LocalDate.now(), "Event-1").accept(HAL_JSON))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"open-20-0-0\""))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        this.mockMvc
+            .perform(get("/api/events/{heldOn}/{name}", LocalDate.now(), "Event-1")
+                .header(HttpHeaders.IF_NONE_MATCH, entityTag)
+                .accept(HAL_JSON))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+    }
+
+    @Test
+    public void registrationsShouldNotBeLoadedWhenNotModified() throws Exception {
+        this.mockMvc
+            .perform(get("/api/events/{heldOn}/{name}/registrations", LocalDate.now(), "Event-1")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"open-20-0-0\"")
+                .accept(HAL_JSON))
+            .andExpect(status().isNotModified());
+
+        verify(eventService, never()).getRegistrations(any(Event.class));
+
+        this.mockMvc
+            .perform(get("/api/events/{heldOn}/{name}/registrations", LocalDate.now(), "Event-1")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"open-20-1-0\"")
+                .accept(HAL_JSON))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"open-20-0-0\""));
+
+        verify(eventService).getRegistrations(any(Event.class));
+    }
+
+    @Test
+    public void entityTagsShouldOnlyMatchTheirOwnRepresentationOfRegistrations() throws Exception {
+        final String entityTag = this.mockMvc
+            .perform(get("/api/events/{heldOn}/{name}/registrations", LocalDate.now(), "Event-1").accept(HAL_JSON))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"open-20-0-0\""))
+            .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        final MvcResult result = this.mockMvc
+            .perform(get("/api/events/{heldOn}/{name}/registrations", LocalDate.now(), "Event-1")
+                .header(HttpHeaders.IF_NONE_MATCH, entityTag)
+                .accept(MediaType.APPLICATION_STREAM_JSON))
+            .andExpect(request().asyncStarted())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"open-20-0-0-stream\""))
+            .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+            .andReturn();
+        this.mockMvc
+            .perform(asyncDispatch(result))
+            .andExpect(status().isOk());
+
+        this.mockMvc
+            .perform(get("/api/events/{heldOn}/{name}/registrations", LocalDate.now(), "Event-1")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"open-20-0-0-stream\"")
+                .accept(MediaType.APPLICATION_STREAM_JSON))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+        this.mockMvc
+            .perform(get("/api/events/{heldOn}/{name}/registrations", LocalDate.now(), "Event-1")
+                .header(HttpHeaders.IF_NONE_MATCH, entityTag)
+                .accept(HAL_JSON))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+    }
+
+    @Test
+    public void registrationsShouldBeStreamed() throws Exception {
+        final List<Registration> registrations = Arrays.asList(
+            new Registration(new Person("michael.simons@innoq.com", "Michael")),
+            new Registration(new Person("test@test.com", "Test")));
+        doAnswer(invocation -> {
+            final Consumer<Registration> consumer = invocation.getArgument(1);
+            registrations.forEach(consumer);
+            return null;
+        }).when(eventService).streamRegistrations(any(Event.class), any());
+
+        final MvcResult result = this.mockMvc
+            .perform(get("/api/events/{heldOn}/{name}/registrations", LocalDate.now(), "Event-1")
+                .accept(MediaType.APPLICATION_STREAM_JSON))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        this.mockMvc
+            .perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_STREAM_JSON))
+            .andExpect(content().string(""
+                + "{\"name\":\"Michael\",\"email\":\"mic***********@innoq.com\"}\n"
+                + "{\"name\":\"Test\",\"email\":\"tes*@test.com\"}"));
+
+        verify(eventService, never()).getRegistrations(any(Event.class));
+    }
+
+    @Test
+    public void importShouldReportResultsPerItem() throws Exception {
+        final LocalDate tomorrow = LocalDate.now().plusDays(1);
+        when(eventService.createNewEvents(anyList()))
+            .thenReturn(Collections.singletonList(new Event(tomorrow, "New")));
+
+        this.mockMvc
+            .perform(post("/api/events/import")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("["
+                    + "{\"heldOn\": \"" + tomorrow + "\", \"name\": \"New\"},"
+                    + "{\"heldOn\": \"" + LocalDate.now().minusDays(1) + "\", \"name\": \"Past\"},"
+                    + "{\"heldOn\": \"" + tomorrow + "\", \"name\": \"New\"},"
+                    + "{\"heldOn\": \"" + tomorrow + "\", \"name\": \"Existing\"},"
+                    + "null"
+                    + "]")
+                .accept(HAL_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("_embedded.results.length()").value(5))
+            .andExpect(jsonPath("_embedded.results[0].status").value("created"))
+            .andExpect(jsonPath("_embedded.results[0]._links.self.href")
+                .value("http://localhost:8080/api/events/" + tomorrow + "/New"))
+            .andExpect(jsonPath("_embedded.results[1].status").value("invalid"))
+            .andExpect(jsonPath("_embedded.results[1].message").value("Event requires a date in the future."))
+            .andExpect(jsonPath("_embedded.results[2].status").value("duplicate"))
+            .andExpect(jsonPath("_embedded.results[3].index").value(3))
+            .andExpect(jsonPath("_embedded.results[3].status").value("duplicate"))
+            .andExpect(jsonPath("_embedded.results[4].status").value("invalid"));
+
+        verify(eventService).createNewEvents(Arrays.asList(
+            new Event(tomorrow, "New"), new Event(tomorrow, "New"), new Event(tomorrow, "Existing")));
+    }
+
+    @Test
+    public void importShouldBeRetriedOnceWhenEventsAreCreatedConcurrently() throws Exception {
+        final LocalDate tomorrow = LocalDate.now().plusDays(1);
+        when(eventService.createNewEvents(anyList()))
+            .thenThrow(new ConcurrentEventCreationException(null))
+            .thenReturn(Collections.singletonList(new Event(tomorrow, "New")));
+
+        this.mockMvc
+            .perform(post("/api/events/import")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("["
+                    + "{\"heldOn\": \"" + tomorrow + "\", \"name\": \"New\"},"
+                    + "{\"heldOn\": \"" + tomorrow + "\", \"name\": \"Concurrent\"}"
+                    + "]")
+                .accept(HAL_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("_embedded.results[0].status").value("created"))
+            .andExpect(jsonPath("_embedded.results[1].status").value("duplicate"));
+
+        verify(eventService, times(2)).createNewEvents(anyList());
+    }
+
+    @Test
+    public void importShouldFailWhenRacingTwice() throws Exception {
+        when(eventService.createNewEvents(anyList())).thenThrow(new ConcurrentEventCreationException(null));
+
+        this.mockMvc
+            .perform(post("/api/events/import")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"heldOn\": \"" + LocalDate.now().plusDays(1) + "\", \"name\": \"New\"}]"))
+            .andExpect(status().isConflict());
+    }
+
+    @Test
+    public void registrationImportShouldReportResultsPerItem() throws Exception {
+        when(eventService.registerAll(eq(new Event(LocalDate.now(), "Event-1")), anyList()))
+            .thenReturn(Arrays.asList(RegistrationOutcome.registered, RegistrationOutcome.full));
+
+        this.mockMvc
+            .perform(post("/api/events/{heldOn}/{name}/registrations/import", LocalDate.now(), "Event-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("["
+                    + "{\"email\": \"a@test.com\", \"name\": \"A\"},"
+                    + "{\"email\": \"\", \"name\": \"B\"},"
+                    + "{\"email\": \"c@test.com\", \"name\": \"C\"}"
+                    + "]")
+                .accept(HAL_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("_embedded.results[0].status").value("registered"))
+            .andExpect(jsonPath("_embedded.results[1].status").value("invalid"))
+            .andExpect(jsonPath("_embedded.results[1].message").value("Person requires a non-empty email-address."))
+            .andExpect(jsonPath("_embedded.results[2].index").value(2))
+            .andExpect(jsonPath("_embedded.results[2].status").value("full"))
+            .andExpect(jsonPath("_links.registrations.href")
+                .value("http://localhost:8080/api/events/" + LocalDate.now() + "/Event-1/registrations"));
+    }
+
+    @Test
+    public void importsShouldBeLimited() throws Exception {
+        final String newEvents = IntStream.rangeClosed(0, EventsApi.MAX_IMPORT_SIZE)
+            .mapToObj(i -> "{\"heldOn\": \"" + LocalDate.now().plusDays(1) + "\", \"name\": \"Event " + i + "\"}")
+            .collect(Collectors.joining(",", "[", "]"));
+
+        this.mockMvc
+            .perform(post("/api/events/import").contentType(MediaType.APPLICATION_JSON).content(newEvents))
+            .andExpect(status().isPayloadTooLarge());
+
+        verify(eventService, never()).createNewEvents(anyList());
+    }
+
+    @Test
+    public void registrationsForFullEventsShouldBeAccepted() throws Exception {
+        when(eventService.registerOrWaitlist(eq(new Event(LocalDate.now(), "Event-1")), any(Person.class)))
+            .thenReturn(RegistrationOutcome.registered, RegistrationOutcome.waitlisted);
+
+        this.mockMvc
+            .perform(post("/api/events/{heldOn}/{name}/registrations", LocalDate.now(), "Event-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\": \"a@test.com\", \"name\": \"A\"}"))
+            .andExpect(status().isCreated());
+        this.mockMvc
+            .perform(post("/api/events/{heldOn}/{name}/registrations", LocalDate.now(), "Event-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\": \"b@test.com\", \"name\": \"B\"}"))
+            .andExpect(status().isAccepted())
+            .andExpect(jsonPath("name").value("B"));
+    }
+
+    @Test
+    public void registrationsShouldBeCancelable() throws Exception {
+        doThrow(new NoSuchRegistrationException())
+            .when(eventService).cancelRegistration(new Event(LocalDate.now(), "Event-1"), "unknown@test.com");
+
+        this.mockMvc
+            .perform(post("/api/events/{heldOn}/{name}/cancellations", LocalDate.now(), "Event-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\": \"a@test.com\"}"))
+            .andExpect(status().isNoContent());
+        this.mockMvc
+            .perform(post("/api/events/{heldOn}/{name}/cancellations", LocalDate.now(), "Event-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\": \"unknown@test.com\"}"))
+            .andExpect(status().isNotFound());
+
+        verify(eventService).cancelRegistration(new Event(LocalDate.now(), "Event-1"), "a@test.com");
+    }
 }
 // end::domain-usage-single-event-test[]
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2026 michael-simons.eu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.simplemeetup.app;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static ac.simons.simplemeetup.app.EventsModule.UnwrappingRegistrationSerializer.hideEmail;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Michael J. Simons, 2026-10-18
+ */
+public class EventsModuleTest {
+
+    private static final String[] SYMBOLS = {"a", "b", ".", "@", "\n", "\uD83D\uDE00", "\uD83D", "\uDE00"};
+
+    private static String hideEmailWithRegex(final String email) {
+        return email.replaceAll("(^[^@]{3}|(?!^)\\G)[^@]", "$1*");
+    }
+
+    @Test
+    public void emailsShouldBeHidden() {
+        assertThat(hideEmail("michael.simons@innoq.com")).isEqualTo("mic***********@innoq.com");
+        assertThat(hideEmail("test@test.com")).isEqualTo("tes*@test.com");
+        assertThat(hideEmail("abc@test.com")).isEqualTo("abc@test.com");
+        assertThat(hideEmail("ab@test.com")).isEqualTo("ab@test.com");
+        assertThat(hideEmail("abcdef")).isEqualTo("abc***");
+        assertThat(hideEmail("")).isEqualTo("");
+    }
+
+    @Test
+    public void emailsShouldBeHiddenLikeWithTheRegex() {
+        final Random random = new Random(4711);
+        for (int i = 0; i < 100_000; ++i) {
+            final StringBuilder email = new StringBuilder();
+            final int length = random.nextInt(16);
+            for (int j = 0; j < length; ++j) {
+                email.append(SYMBOLS[random.nextInt(SYMBOLS.length)]);
+            }
+            final String value = email.toString();
+            assertThat(hideEmail(value)).as("Hiding '%s'", value).isEqualTo(hideEmailWithRegex(value));
+        }
+    }
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright 2026 michael-simons.eu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.simplemeetup.app;
+
+import ac.simons.simplemeetup.config.JacksonConfig;
+import ac.simons.simplemeetup.config.ReactiveConfig;
+import ac.simons.simplemeetup.domain.Event;
+import ac.simons.simplemeetup.domain.EventService;
+import ac.simons.simplemeetup.domain.Person;
+import ac.simons.simplemeetup.domain.Registration;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.reactivestreams.Subscription;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.codec.CodecsAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Michael J. Simons, 2026-10-18
+ */
+@RunWith(SpringRunner.class)
+@WebFluxTest(controllers = ReactiveEventsApi.class)
+@ActiveProfiles("reactive")
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, CodecsAutoConfiguration.class})
+@Import({JacksonConfig.class, ReactiveConfig.class})
+@TestPropertySource(properties = "simple-meetup.reactive.demand-timeout = 200")
+public class ReactiveEventsApiTest {
+
+    @MockBean
+    private EventService eventService;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ReactiveEventsApi reactiveEventsApi;
+
+    @Test
+    public void eventsShouldWork() {
+        final LocalDate tomorrow = LocalDate.now().plusDays(1);
+        final Event previous = new Event(tomorrow, "Event-1");
+        final Event last = new Event(tomorrow.plusDays(1), "Event-1");
+        when(eventService.getOpenEventsAfter(tomorrow, "Event-1", 3)).thenReturn(Arrays.asList(
+            new Event(tomorrow, "Event-2"), last, new Event(tomorrow.plusDays(2), "Event-1")));
+
+        final EntityExchangeResult<byte[]> result = this.webTestClient.get()
+            .uri("/api/events?size=2&after={after}", EventCursor.of(previous))
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.length()").isEqualTo(2)
+            .jsonPath("$[0].name").isEqualTo("Event-2")
+            .jsonPath("$[1].heldOn").isEqualTo(tomorrow.plusDays(1).toString())
+            .jsonPath("$[1].numberOfFreeSeats").isEqualTo(20)
+            .returnResult();
+        assertThat(result.getResponseHeaders().get(HttpHeaders.LINK)).containsExactly(
+            "<" + result.getUrl().resolve("/api/events?size=2&after=" + EventCursor.of(last)) + ">; rel=\"next\"",
+            "<" + result.getUrl().resolve("/api/events?size=2&before=" + EventCursor.of(new Event(tomorrow, "Event-2")))
+                + ">; rel=\"prev\"");
+    }
+
+    @Test
+    public void firstPageOfEventsShouldOnlyLinkToTheNextPage() {
+        final LocalDate tomorrow = LocalDate.now().plusDays(1);
+        when(eventService.getOpenEvents(2)).thenReturn(Arrays.asList(
+            new Event(tomorrow, "Event-1"), new Event(tomorrow, "Event-2")));
+
+        final EntityExchangeResult<byte[]> result = this.webTestClient.get()
+            .uri("/api/events?size=1")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.length()").isEqualTo(1)
+            .returnResult();
+        assertThat(result.getResponseHeaders().get(HttpHeaders.LINK)).hasSize(1)
+            .allSatisfy(link -> assertThat(link).endsWith("; rel=\"next\""));
+    }
+
+    @Test
+    public void eventShouldSupportConditionalRequests() {
+        final LocalDate today = LocalDate.now();
+        when(eventService.getEvent(today, "Event-1")).thenReturn(Optional.of(new Event(today, "Event-1")));
+
+        this.webTestClient.get()
+            .uri("/api/events/{heldOn}/{name}", today, "Event-1")
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().valueEquals("ETag", "\"open-20-0-0\"")
+            .expectBody()
+            .jsonPath("$.name").isEqualTo("Event-1");
+
+        this.webTestClient.get()
+            .uri("/api/events/{heldOn}/{name}", today, "Event-1")
+            .header("If-None-Match", "\"open-20-0-0\"")
+            .exchange()
+            .expectStatus().isNotModified()
+            .expectBody().isEmpty();
+    }
+
+    @Test
+    public void missingEventsShouldNotBeFound() {
+        when(eventService.getEvent(any(), any())).thenReturn(Optional.empty());
+
+        this.webTestClient.get()
+            .uri("/api/events/{heldOn}/{name}", LocalDate.now(), "Event-1")
+            .exchange()
+            .expectStatus().isNotFound();
+    }
+
+    @Test
+    public void registrationsShouldBeStreamed() {
+        final Event event = new Event(LocalDate.now(), "Event-1");
+        when(eventService.getEvent(event.getHeldOn(), event.getName())).thenReturn(Optional.of(event));
+        final List<Registration> registrations = Arrays.asList(
+            new Registration(new Person("michael.simons@innoq.com", "Michael")),
+            new Registration(new Person("test@test.com", "Test")));
+        doAnswer(invocation -> {
+            final Consumer<Registration> consumer = invocation.getArgument(1);
+            registrations.forEach(consumer);
+            return null;
+        }).when(eventService).streamRegistrations(any(Event.class), any());
+
+        this.webTestClient.get()
+            .uri("/api/events/{heldOn}/{name}/registrations", event.getHeldOn(), event.getName())
+            .accept(MediaType.APPLICATION_STREAM_JSON)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody(String.class).isEqualTo(""
+                + "{\"name\":\"Michael\",\"email\":\"mic***********@innoq.com\"}\n"
+                + "{\"name\":\"Test\",\"email\":\"tes*@test.com\"}\n");
+
+        this.webTestClient.get()
+            .uri("/api/events/{heldOn}/{name}/registrations", event.getHeldOn(), event.getName())
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.length()").isEqualTo(2)
+            .jsonPath("$[1].email").isEqualTo("tes*@test.com");
+    }
+
+    @Test
+    public void registrationsShouldOnlyBeReadOnDemand() throws InterruptedException {
+        final Event event = new Event(LocalDate.now(), "Event-1");
+        when(eventService.getEvent(event.getHeldOn(), event.getName())).thenReturn(Optional.of(event));
+        final AtomicInteger read = new AtomicInteger();
+        final CountDownLatch streamLeft = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            final Consumer<Registration> consumer = invocation.getArgument(1);
+            try {
+                IntStream.range(0, 1000).forEach(i -> {
+                    read.incrementAndGet();
+                    consumer.accept(new Registration(new Person("test" + i + "@test.com", "Test " + i)));
+                });
+            } finally {
+                streamLeft.countDown();
+            }
+            return null;
+        }).when(eventService).streamRegistrations(any(Event.class), any());
+
+        final List<Registration> received = new CopyOnWriteArrayList<>();
+        this.reactiveEventsApi.registrations(event.getHeldOn(), event.getName())
+            .subscribe(new BaseSubscriber<Registration>() {
+                @Override
+                protected void hookOnSubscribe(final Subscription subscription) {
+                    request(2);
+                }
+
+                @Override
+                protected void hookOnNext(final Registration registration) {
+                    received.add(registration);
+                    if (received.size() == 2) {
+                        cancel();
+                    }
+                }
+            });
+
+        assertThat(streamLeft.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(received).extracting(Registration::getName).containsExactly("Test 0", "Test 1");
+        // The third registration has been read, but not emitted
+        assertThat(read.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void registrationsShouldNotWaitForeverOnDemand() throws InterruptedException {
+        final Event event = new Event(LocalDate.now(), "Event-1");
+        when(eventService.getEvent(event.getHeldOn(), event.getName())).thenReturn(Optional.of(event));
+        final CountDownLatch streamLeft = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            final Consumer<Registration> consumer = invocation.getArgument(1);
+            try {
+                IntStream.range(0, 1000)
+                    .forEach(i -> consumer.accept(new Registration(new Person("test" + i + "@test.com", "Test " + i))));
+            } finally {
+                streamLeft.countDown();
+            }
+            return null;
+        }).when(eventService).streamRegistrations(any(Event.class), any());
+
+        final List<Registration> received = new CopyOnWriteArrayList<>();
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        this.reactiveEventsApi.registrations(event.getHeldOn(), event.getName())
+            .subscribe(new BaseSubscriber<Registration>() {
+                @Override
+                protected void hookOnSubscribe(final Subscription subscription) {
+                    request(1);
+                }
+
+                @Override
+                protected void hookOnNext(final Registration registration) {
+                    received.add(registration);
+                }
+
+                @Override
+                protected void hookOnError(final Throwable throwable) {
+                    error.set(throwable);
+                }
+            });
+
+        assertThat(streamLeft.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(received).extracting(Registration::getName).containsExactly("Test 0");
+        assertThat(error.get()).isInstanceOf(TimeoutException.class);
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026 michael-simons.eu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.simplemeetup.app;
+
+import ac.simons.simplemeetup.config.JacksonConfig;
+import ac.simons.simplemeetup.config.RegistrationGroupCommitConfig;
+import ac.simons.simplemeetup.domain.Event;
+import ac.simons.simplemeetup.domain.EventService;
+import ac.simons.simplemeetup.domain.Person;
+import ac.simons.simplemeetup.domain.RegistrationIntake;
+import ac.simons.simplemeetup.domain.RegistrationIntakeFullException;
+import ac.simons.simplemeetup.domain.RegistrationRequest;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * @author Michael J. Simons, 2026-10-18
+ */
+@RunWith(SpringRunner.class)
+@WebMvcTest(controllers = {EventsApi.class, RegistrationRequestsApi.class})
+@ActiveProfiles("registration-intake")
+@Import({JacksonConfig.class, RegistrationGroupCommitConfig.class})
+public class RegistrationRequestsApiTest {
+
+    @MockBean
+    private EventService eventService;
+
+    @MockBean
+    private RegistrationIntake registrationIntake;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void registrationsShouldBeQueued() throws Exception {
+        final Event event = new Event(LocalDate.now(), "Event-1");
+        final RegistrationRequest request = new RegistrationRequest(event, new Person("a@test.com", "A"));
+        when(eventService.getEvent(event.getHeldOn(), event.getName())).thenReturn(Optional.of(event));
+        when(registrationIntake.submit(eq(event), any(Person.class))).thenReturn(request);
+
+        this.mockMvc
+            .perform(post("/api/events/{heldOn}/{name}/registrations", event.getHeldOn(), event.getName())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\": \"a@test.com\", \"name\": \"A\"}"))
+            .andExpect(status().isAccepted())
+            .andExpect(header().string("Location", "http://localhost/api/registration-requests/" + request.getId()))
+            .andExpect(jsonPath("status").value("pending"))
+            .andExpect(jsonPath("message").doesNotExist())
+            .andExpect(jsonPath("_links.registrations.href").value(
+                "http://localhost/api/events/" + event.getHeldOn() + "/Event-1/registrations"));
+        verify(eventService, never()).registerAllOrWaitlist(any(Event.class), anyList());
+    }
+
+    @Test
+    public void registrationsForUnknownEventsShouldNotBeQueued() throws Exception {
+        when(eventService.getEvent(any(LocalDate.class), anyString())).thenReturn(Optional.empty());
+
+        this.mockMvc
+            .perform(post("/api/events/{heldOn}/{name}/registrations", LocalDate.now(), "Event-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\": \"a@test.com\", \"name\": \"A\"}"))
+            .andExpect(status().isNotFound());
+        verify(registrationIntake, never()).submit(any(Event.class), any(Person.class));
+    }
+
+    @Test
+    public void fullIntakeShouldBeReported() throws Exception {
+        final Event event = new Event(LocalDate.now(), "Event-1");
+        when(eventService.getEvent(event.getHeldOn(), event.getName())).thenReturn(Optional.of(event));
+        when(registrationIntake.submit(eq(event), any(Person.class))).thenThrow(new RegistrationIntakeFullException(1));
+
+        this.mockMvc
+            .perform(post("/api/events/{heldOn}/{name}/registrations", event.getHeldOn(), event.getName())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\": \"a@test.com\", \"name\": \"A\"}"))
+            .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    public void statusOfRequestsShouldBeReported() throws Exception {
+        final Event event = new Event(LocalDate.now(), "Event-1");
+        final RegistrationRequest request = new RegistrationRequest(event, new Person("a@test.com", "A"));
+        when(registrationIntake.getRequest(request.getId())).thenReturn(Optional.of(request));
+        when(registrationIntake.getRequest("unknown")).thenReturn(Optional.empty());
+
+        this.mockMvc
+            .perform(get("/api/registration-requests/{id}", request.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("status").value("pending"))
+            .andExpect(jsonPath("_links.self.href").value(
+                "http://localhost/api/registration-requests/" + request.getId()));
+        this.mockMvc
+            .perform(get("/api/registration-requests/{id}", "unknown"))
+            .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2026 michael-simons.eu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.simplemeetup.config;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author Michael J. Simons, 2026-10-18
+ */
+public class EvictAfterCommitCacheManagerTest {
+
+    private ExecutorService executor;
+
+    private Cache cache;
+
+    @Before
+    public void prepareCache() {
+        final CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager("events");
+        this.cache = new EvictAfterCommitCacheManager(caffeineCacheManager).getCache("events");
+        this.executor = Executors.newFixedThreadPool(2);
+    }
+
+    @After
+    public void shutdownExecutor() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void putsShouldBeVisibleBeforeCommit() {
+        inTransaction(() -> {
+            this.cache.put("key", "value");
+            assertThat(this.cache.get("key", String.class)).isEqualTo("value");
+        });
+    }
+
+    @Test
+    public void evictionsShouldBeAppliedAfterCommit() {
+        this.cache.put("key", "value");
+
+        inTransaction(() -> {
+            this.cache.evict("key");
+            assertThat(this.cache.get("key", String.class)).isEqualTo("value");
+        });
+        assertThat(this.cache.get("key")).isNull();
+    }
+
+    @Test
+    public void evictionsWithoutTransactionShouldBeAppliedImmediately() {
+        this.cache.put("key", "value");
+        this.cache.evict("key");
+        assertThat(this.cache.get("key")).isNull();
+    }
+
+    @Test
+    public void absentValuesShouldNotBeCached() {
+        assertThat(this.cache.get("key", () -> (String) null)).isNull();
+        assertThat(this.cache.get("key")).isNull();
+    }
+
+    @Test
+    public void staleLoadsShouldNotSurviveACommittedEviction() throws Exception {
+        final CountDownLatch loading = new CountDownLatch(1);
+        final CountDownLatch mayReturn = new CountDownLatch(1);
+
+        final Future<String> reader = this.executor.submit(() -> this.cache.get("key", () -> {
+            loading.countDown();
+            mayReturn.await(5, TimeUnit.SECONDS);
+            return "stale";
+        }));
+        loading.await(5, TimeUnit.SECONDS);
+
+        final Future<?> writer = this.executor.submit(() -> inTransaction(() -> this.cache.evict("key")));
+        assertThatThrownBy(() -> writer.get(100, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+
+        mayReturn.countDown();
+        assertThat(reader.get(5, TimeUnit.SECONDS)).isEqualTo("stale");
+        writer.get(5, TimeUnit.SECONDS);
+
+        assertThat(this.cache.get("key")).isNull();
+    }
+
+    private static void inTransaction(final Runnable action) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            action.run();
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026 michael-simons.eu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.simplemeetup.domain;
+
+import ac.simons.simplemeetup.config.CacheConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Optional;
+
+import static ac.simons.simplemeetup.domain.Events.halloween;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Michael J. Simons, 2026-10-18
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(
+    classes = {CacheConfig.class, EventService.class, SimpleMeterRegistry.class},
+    webEnvironment = WebEnvironment.NONE
+)
+public class EventServiceCachingTest {
+
+    @BeforeClass
+    public static void prepareEventClock() {
+        Event.CLOCK.set(
+            Clock.fixed(Instant.parse("2018-01-01T08:00:00.00Z"), ZoneId.systemDefault()));
+    }
+
+    @MockBean
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Before
+    public void clearCache() {
+        cacheManager.getCache("events").clear();
+    }
+
+    @Test
+    public void eventsShouldBeCached() {
+        final Event halloween = halloween();
+        when(eventRepository.findOneByHeldOnAndName(halloween.getHeldOn(), halloween.getName()))
+            .thenReturn(Optional.of(halloween));
+
+        assertThat(eventService.getEvent(halloween.getHeldOn(), halloween.getName())).contains(halloween);
+        assertThat(eventService.getEvent(halloween.getHeldOn(), halloween.getName())).contains(halloween);
+
+        verify(eventRepository, times(1)).findOneByHeldOnAndName(halloween.getHeldOn(), halloween.getName());
+    }
+
+    @Test
+    public void absentEventsShouldNotBeCached() {
+        final LocalDate heldOn = LocalDate.of(2018, 11, 1);
+        when(eventRepository.findOneByHeldOnAndName(heldOn, "test")).thenReturn(Optional.empty());
+
+        assertThat(eventService.getEvent(heldOn, "test")).isEmpty();
+        assertThat(eventService.getEvent(heldOn, "test")).isEmpty();
+
+        verify(eventRepository, times(2)).findOneByHeldOnAndName(heldOn, "test");
+    }
+
+    @Test
+    public void registrationsShouldEvictEvents() {
+        final Event halloween = halloween();
+        when(eventRepository.findOneByHeldOnAndName(halloween.getHeldOn(), halloween.getName()))
+            .thenReturn(Optional.of(halloween));
+        when(eventRepository.isRegistered(any(Event.class), anyString())).thenReturn(false);
+        when(eventRepository.claimSeat(halloween)).thenReturn(1);
+
+        eventService.getEvent(halloween.getHeldOn(), halloween.getName());
+        eventService.registerOrWaitlist(halloween, new Person("test@test.com", "test"));
+        eventService.getEvent(halloween.getHeldOn(), halloween.getName());
+
+        verify(eventRepository, times(3)).findOneByHeldOnAndName(halloween.getHeldOn(), halloween.getName());
+    }
+
+    @Test
+    public void closingShouldEvictEvents() {
+        final Event halloween = halloween();
+        when(eventRepository.findOneByHeldOnAndName(halloween.getHeldOn(), halloween.getName()))
+            .thenReturn(Optional.of(halloween));
+
+        eventService.getEvent(halloween.getHeldOn(), halloween.getName());
+        final Event closedEvent = eventService.closeEvent(halloween.getHeldOn(), halloween.getName());
+        final Optional<Event> event = eventService.getEvent(halloween.getHeldOn(), halloween.getName());
+
+        assertThat(closedEvent.isClosed()).isTrue();
+        assertThat(event).hasValueSatisfying(e -> assertThat(e.isClosed()).isTrue());
+        verify(eventRepository, times(3)).findOneByHeldOnAndName(halloween.getHeldOn(), halloween.getName());
+    }
+
+    @AfterClass
+    public static void resetEventClock() {
+        Event.CLOCK.set(Clock.systemDefaultZone());
+    }
+}
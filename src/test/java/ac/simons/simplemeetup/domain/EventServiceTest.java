@@ -15,24 +15,42 @@
  */
 package ac.simons.simplemeetup.domain;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.dao.DataIntegrityViolationException;
 
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.time.Clock;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static ac.simons.simplemeetup.domain.Events.halloween;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.AdditionalAnswers.returnsFirstArg;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -53,31 +71,43 @@ public class EventServiceTest {
             Clock.fixed(Instant.parse("2018-01-01T08:00:00.00Z"), ZoneId.systemDefault()));
     }
 
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     // tag::event-repository-usage-test[]
     @Mock // <2>
     private EventRepository eventRepository;
 
     @Test
     public void shouldNotCreateDuplicateEvents() {
-        when(eventRepository.findOne(halloween().asExample()))
-            .thenReturn(Optional.of(halloween())); // <3>
+        when(eventRepository.saveAndFlush(halloween()))
+            .thenThrow(new DataIntegrityViolationException("Duplicate event",
+                new ConstraintViolationException("Duplicate event", null, "events_uk"))); // <3>
 
-        final EventService eventService = new EventService(this.eventRepository);
+        final EventService eventService = new EventService(this.eventRepository, this.meterRegistry);
 
         assertThatThrownBy(() -> eventService.createNewEvent(halloween()))
             .isInstanceOf(DuplicateEventException.class);
 
-        verify(eventRepository, times(1))
-                .findOne(halloween().asExample()); // <4>
+        verify(eventRepository, times(1)).saveAndFlush(halloween()); // <4>
     }
     // end::event-repository-usage-test[]
 
+    @Test
+    public void otherViolationsShouldNotBeReportedAsDuplicates() {
+        final DataIntegrityViolationException violation = new DataIntegrityViolationException("Something else",
+            new ConstraintViolationException("Something else", null, "registrations_events_fk"));
+        when(eventRepository.saveAndFlush(halloween())).thenThrow(violation);
+
+        final EventService eventService = new EventService(this.eventRepository, this.meterRegistry);
+
+        assertThatThrownBy(() -> eventService.createNewEvent(halloween())).isSameAs(violation);
+    }
+
     @Test
     public void shouldCreateEvents() {
-        when(eventRepository.findOne(new Event(NOVEMBER_1_ST, "test").asExample())).thenReturn(Optional.empty());
-        when(eventRepository.save(any(Event.class))).then(returnsFirstArg());
+        when(eventRepository.saveAndFlush(any(Event.class))).then(returnsFirstArg());
 
-        final EventService eventService = new EventService(this.eventRepository);
+        final EventService eventService = new EventService(this.eventRepository, this.meterRegistry);
 
         final Event test = new Event(NOVEMBER_1_ST, "test");
         final Event newEvent = eventService.createNewEvent(test);
@@ -85,6 +115,396 @@ public class EventServiceTest {
         assertThat(newEvent).isEqualTo(test);
     }
 
+    @Test
+    public void createNewEventsShouldSkipExistingAndRepeatedEvents() {
+        final Event existing = new Event(NOVEMBER_1_ST, "existing");
+        final Event first = new Event(NOVEMBER_1_ST, "first");
+        final Event second = new Event(NOVEMBER_1_ST.plusDays(1), "second");
+        when(eventRepository.findAllByHeldOnInAndNameIn(any(), any())).thenReturn(Arrays.asList(existing));
+
+        final EventService eventService = new EventService(this.eventRepository, this.meterRegistry);
+        final List<Event> createdEvents = eventService.createNewEvents(Arrays.asList(
+            first, new Event(NOVEMBER_1_ST, "existing"), second, new Event(NOVEMBER_1_ST, "first")));
+
+        assertThat(createdEvents).containsExactly(first, second);
+        verify(eventRepository).insertAll(new LinkedHashSet<>(Arrays.asList(first, second)));
+    }
+
+    @Test
+    public void createNewEventsShouldReportEventsCreatedConcurrently() {
+        final Event first = new Event(NOVEMBER_1_ST, "first");
+        final DataIntegrityViolationException violation = new DataIntegrityViolationException("Duplicate event",
+            new ConstraintViolationException("Duplicate event", null, "events_uk"));
+        when(eventRepository.findAllByHeldOnInAndNameIn(any(), any())).thenReturn(new ArrayList<>());
+        doThrow(violation).when(eventRepository).insertAll(any());
+
+        final EventService eventService = new EventService(this.eventRepository, this.meterRegistry);
+
+        assertThatThrownBy(() -> eventService.createNewEvents(Arrays.asList(first)))
+            .isInstanceOf(ConcurrentEventCreationException.class)
+            .hasCause(violation);
+    }
+
+    @Test
+    public void registerAllShouldReportOutcomePerPerson() {
+        final Event event = new Event(NOVEMBER_1_ST, "test", 2);
+        when(eventRepository.findOneForUpdateByHeldOnAndName(NOVEMBER_1_ST, "test")).thenReturn(Optional.of(event));
+        when(eventRepository.findRegisteredEmails(eq(event), any())).thenReturn(Arrays.asList("a@test.com"));
+        when(eventRepository.claimSeats(event, 2)).thenReturn(1);
+
+        final EventService eventService = new EventService(this.eventRepository, this.meterRegistry);
+        final List<RegistrationOutcome> outcomes = eventService.registerAll(new Event(NOVEMBER_1_ST, "test"), Arrays.asList(
+            new Person("a@test.com", "a"),
+            new Person("b@test.com", "b"),
+            new Person("B@test.com", "B"),
+            new Person("c@test.com", "c"),
+            new Person("d@test.com", "d")
+        ));
+
+        assertThat(outcomes).containsExactly(
+            RegistrationOutcome.duplicate,
+            RegistrationOutcome.registered,
+            RegistrationOutcome.duplicate,
+            RegistrationOutcome.registered,
+            RegistrationOutcome.full
+        );
+        verify(eventRepository).addRegistrations(event, Arrays.asList(
+            new Registration(new Person("b@test.com", "b")), new Registration(new Person("c@test.com", "c"))));
+        assertThat(registrations("registered")).isEqualTo(2.0);
+        assertThat(registrations("duplicate")).isEqualTo(2.0);
+        assertThat(registrations("full")).isEqualTo(1.0);
+    }
+
+    @Test
+    public void registerAllShouldFailForClosedEvents() {
+        final Event event = new Event(NOVEMBER_1_ST, "test");
+        event.close();
+        when(eventRepository.findOneForUpdateByHeldOnAndName(NOVEMBER_1_ST, "test")).thenReturn(Optional.of(event));
+
+        final EventService eventService = new EventService(this.eventRepository, this.meterRegistry);
+
+        assertThatThrownBy(() -> eventService.registerAll(event, Arrays.asList(new Person("a@test.com", "a"))))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("Cannot register for a closed event.");
+        verify(eventRepository, never()).claimSeats(any(), anyInt());
+        assertThat(registrations("closed")).isEqualTo(1.0);
+    }
+
+    @Test
+    public void registerAllShouldCountDuplicatesAsSuchWhenSeatsCannotBeClaimed() {
+        final Event event = new Event(NOVEMBER_1_ST, "test", 2);
+        when(eventRepository.findOneForUpdateByHeldOnAndName(NOVEMBER_1_ST, "test")).thenReturn(Optional.of(event));
+        when(eventRepository.findRegisteredEmails(eq(event), any())).thenReturn(Arrays.asList("a@test.com"));
+        when(eventRepository.claimSeats(event, 2)).thenReturn(0);
+
+        final EventService eventService = new EventService(this.eventRepository, this.meterRegistry);
+
+        assertThatThrownBy(() -> eventService.registerAll(event, Arrays.asList(
+            new Person("a@test.com", "a"),
+            new Person("b@test.com", "b"),
+            new Person("c@test.com", "c"),
+            new Person("d@test.com", "d")
+        )))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("Cannot register for a full event.");
+        verify(eventRepository, never()).addRegistrations(any(Event.class), any());
+        assertThat(registrations("duplicate")).isEqualTo(1.0);
+        assertThat(registrations("full")).isEqualTo(3.0);
+    }
+
+    @Test
+    public void registerAllOrWaitlistShouldWaitlistPersonsWithoutSeat() {
+        final Event event = new Event(NOVEMBER_1_ST, "test", 1);
+        when(eventRepository.findOneForUpdateByHeldOnAndName(NOVEMBER_1_ST, "test")).thenReturn(Optional.of(event));
+        when(eventRepository.findRegisteredEmails(eq(event), any())).thenReturn(Arrays.asList("a@test.com"));
+        when(eventRepository.claimSeats(event, 1)).thenReturn(1);
+        when(eventRepository.findWaitlistedEmails(eq(event), any())).thenReturn(Arrays.asList("c@test.com"));
+
+        final EventService eventService = new EventService(this.eventRepository, this.meterRegistry);
+        final List<RegistrationOutcome> outcomes = eventService.registerAllOrWaitlist(
+            new Event(NOVEMBER_1_ST, "test"), Arrays.asList(
+                new Person("a@test.com", "a"),
+                new Person("b@test.com", "b"),
+                new Person("c@test.com", "c"),
+                new Person("d@test.com", "d"),
+                new Person("D@test.com", "D")
+            ));
+
+        assertThat(outcomes).containsExactly(
+            RegistrationOutcome.duplicate,
+            RegistrationOutcome.registered,
+            RegistrationOutcome.duplicate,
+            RegistrationOutcome.waitlisted,
+            RegistrationOutcome.duplicate
+        );
+        verify(eventRepository).addRegistrations(event,
+            Arrays.asList(new Registration(new Person("b@test.com", "b"))));
+        verify(eventRepository)
+            .findWaitlistedEmails(event, new LinkedHashSet<>(Arrays.asList("c@test.com", "d@test.com")));
+        verify(eventRepository).addAllToWaitlist(event, Arrays.asList(new Registration(new Person("d@test.com", "d"))));
+        assertThat(registrations("registered")).isEqualTo(1.0);
+        assertThat(registrations("waitlisted")).isEqualTo(1.0);
+        assertThat(registrations("duplicate")).isEqualTo(3.0);
+    }
+
+    @Test
+    public void registerAllOrWaitlistShouldNotLookAtTheWaitlistWhileSeatsAreFree() {
+        final Event event = new Event(NOVEMBER_1_ST, "test", 2);
+        when(eventRepository.findOneForUpdateByHeldOnAndName(NOVEMBER_1_ST, "test")).thenReturn(Optional.of(event));
+        when(eventRepository.claimSeats(event, 2)).thenReturn(1);
+
+        final EventService eventService = new EventService(this.eventRepository, this.meterRegistry);
+        final List<RegistrationOutcome> outcomes = eventService.registerAllOrWaitlist(event,
+            Arrays.asList(new Person("a@test.com", "a"), new Person("b@test.com", "b")));
+
+        assertThat(outcomes).containsOnly(RegistrationOutcome.registered);
+        verify(eventRepository, never()).findWaitlistedEmails(any(Event.class), any());
+        verify(eventRepository, never()).addAllToWaitlist(any(Event.class), any());
+    }
+
+    @Test
+    public void registerOrWaitlistShouldClaimSeatWithoutLockingTheEvent() {
+        final Event halloween = halloween();
+        when(eventRepository.findOneByHeldOnAndName(halloween.getHeldOn(), halloween.getName()))
+            .thenReturn(Optional.of(halloween));
+        when(eventRepository.isRegistered(halloween, "test@test.com")).thenReturn(false);
+        when(eventRepository.claimSeat(halloween)).thenReturn(1);
+
+        final EventService eventService = new EventService(this.eventRepository, this.meterRegistry);
+
+        assertThat(eventService.registerOrWaitlist(halloween(), new Person("Test@test.com", "test")))
+            .isEqualTo(RegistrationOutcome.registered);
+        assertThat(halloween.getNumberOfFreeSeats()).isEqualTo(19);
+        verify(eventRepository).addRegistration(halloween, new Registration(new Person("test@test.com", "test")));
+        verify(eventRepository, never()).findOneForUpdateByHeldOnAndName(any(), any());
+        verify(eventRepository, never()).findStatusForUpdate(any(Event.class));
+        assertThat(registrations("registered")).isEqualTo(1.0);
+    }
+
+    @Test
+    public void registerOrWaitlistShouldCheckDuplicatesThroughRepository() {
+        final Event halloween = halloween();
+        when(eventRepository.findOneByHeldOnAndName(halloween.getHeldOn(), halloween.getName()))
+            .thenReturn(Optional.of(halloween));
+        when(eventRepository.isRegistered(halloween, "test@test.com")).thenReturn(true);
+
+        final EventService eventService = new EventService(this.eventRepository, this.meterRegistry);
+
+        assertThatThrownBy(() -> eventService.registerOrWaitlist(halloween(), new Person("test@test.com", "test")))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThat(halloween.getNumberOfFreeSeats()).isEqualTo(20);
+        verify(eventRepository, never()).addRegistration(any(Event.class), any(Registration.class));
+        verify(eventRepository, never()).findStatusForUpdate(any(Event.class));
+        assertThat(registrations("duplicate")).isEqualTo(1.0);
+    }
+
+    @Test
+    public void registerOrWaitlistShouldWaitlistWhenSeatCannotBeClaimed() {
+        final Event halloween = halloween();
+        when(eventRepository.findOneByHeldOnAndName(halloween.getHeldOn(), halloween.getName()))
+            .thenReturn(Optional.of(halloween));
+        when(eventRepository.isRegistered(halloween, "test@test.com")).thenReturn(false);
+        when(eventRepository.claimSeat(halloween)).thenReturn(0);
+
+        final EventService eventService = new EventService(this.eventRepository, this.meterRegistry);
+
+        assertThat(eventService.registerOrWaitlist(halloween(), new Person("test@test.com", "test")))
+            .isEqualTo(RegistrationOutcome.waitlisted);
+        verify(eventRepository).findStatusForUpdate(halloween);
+        verify(eventRepository).addToWaitlist(halloween, new Registration(new Person("test@test.com", "test")));
+        verify(eventRepository, never()).addRegistration(any(Event.class), any(Registration.class));
+        assertThat(registrations("waitlisted")).isEqualTo(1.0);
+        assertThat(this.meterRegistry.find("events.registrations").tag("outcome", "full").counter()).isNull();
+    }
+
+    @Test
+    public void registerOrWaitlistShouldCountRegistrationsForPastEventsAsSuch() {
+        final Event pastEvent = Events.pastEvent();
+        when(eventRepository.findOneByHeldOnAndName(pastEvent.getHeldOn(), pastEvent.getName()))
+            .thenReturn(Optional.of(pastEvent));
+
+        final EventService eventService = new EventService(this.eventRepository, this.meterRegistry);
+
+        assertThatThrownBy(() -> eventService.registerOrWaitlist(pastEvent, new Person("test@test.com", "test")))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("Cannot register for a past event.");
+        verify(eventRepository, never()).findStatusForUpdate(any(Event.class));
+        assertThat(registrations("past")).isEqualTo(1.0);
+        assertThat(this.meterRegistry.find("events.registrations").tag("outcome", "full").counter()).isNull();
+    }
+
+    @Test
+    public void allPublicOperationsShouldBeTimed() {
+        assertThat(Arrays.stream(EventService.class.getDeclaredMethods())
+            .filter(method -> Modifier.isPublic(method.getModifiers()))
+            .filter(method -> {
+                final Timed timed = method.getAnnotation(Timed.class);
+                return timed == null || !"events.service".equals(timed.value());
+            })
+            .map(Method::getName))
+            .isEmpty();
+    }
+
+    @Test
+    public void freeSeatsOfOpenEventsShouldBeMeasured() {
+        when(eventRepository.countFreeSeatsOfOpenEvents()).thenReturn(42L);
+
+        new EventService(this.eventRepository, this.meterRegistry);
+
+        assertThat(this.meterRegistry.get("events.open.free-seats").gauge().value()).isEqualTo(42.0);
+    }
+
+    @Test
+    public void freeSeatsOfOpenEventsShouldNotBeSelectedForEachScrape() {
+        when(eventRepository.countFreeSeatsOfOpenEvents()).thenReturn(42L, 23L);
+
+        new EventService(this.eventRepository, this.meterRegistry);
+
+        assertThat(this.meterRegistry.get("events.open.free-seats").gauge().value()).isEqualTo(42.0);
+        assertThat(this.meterRegistry.get("events.open.free-seats").gauge().value()).isEqualTo(42.0);
+        verify(eventRepository, times(1)).countFreeSeatsOfOpenEvents();
+    }
+
+    @Test
+    public void registerOrWaitlistShouldRegisterWhileSeatsAreFree() {
+        final Event halloween = halloween();
+        when(eventRepository.findOneByHeldOnAndName(halloween.getHeldOn(), halloween.getName()))
+            .thenReturn(Optional.of(halloween));
+        when(eventRepository.claimSeat(halloween)).thenReturn(1);
+
+        final EventService eventService = new EventService(this.eventRepository, this.meterRegistry);
+
+        assertThat(eventService.registerOrWaitlist(halloween, new Person("test@test.com", "test")))
+            .isEqualTo(RegistrationOutcome.registered);
+        verify(eventRepository).addRegistration(halloween, new Registration(new Person("test@test.com", "test")));
+        verify(eventRepository, never()).addToWaitlist(any(Event.class), any(Registration.class));
+    }
+
+    @Test
+    public void registerOrWaitlistShouldPutPersonsOnTheWaitlistOfFullEvents() {
+        final Event fullEvent = Events.fullEvent();
+        when(eventRepository.findOneByHeldOnAndName(fullEvent.getHeldOn(), fullEvent.getName()))
+            .thenReturn(Optional.of(fullEvent));
+
+        final EventService eventService = new EventService(this.eventRepository, this.meterRegistry);
+
+        assertThat(eventService.registerOrWaitlist(fullEvent, new Person("Test@test.com", "test")))
+            .isEqualTo(RegistrationOutcome.waitlisted);
+        verify(eventRepository).findStatusForUpdate(fullEvent);
+        verify(eventRepository).addToWaitlist(fullEvent, new Registration(new Person("test@test.com", "test")));
+        verify(eventRepository, never()).addRegistration(any(Event.class), any(Registration.class));
+        assertThat(registrations("waitlisted")).isEqualTo(1.0);
+    }
+
+    @Test
+    public void registerOrWaitlistShouldNotWaitlistForEventsClosedInTheMeantime() {
+        final Event fullEvent = Events.fullEvent();
+        when(eventRepository.findOneByHeldOnAndName(fullEvent.getHeldOn(), fullEvent.getName()))
+            .thenReturn(Optional.of(fullEvent));
+        when(eventRepository.findStatusForUpdate(fullEvent)).thenReturn(Event.Status.closed);
+
+        final EventService eventService = new EventService(this.eventRepository, this.meterRegistry);
+
+        assertThatThrownBy(() -> eventService.registerOrWaitlist(fullEvent, new Person("test@test.com", "test")))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("Cannot register for a closed event.");
+        verify(eventRepository, never()).addToWaitlist(any(Event.class), any(Registration.class));
+        verify(eventRepository, never()).claimSeat(any(Event.class));
+        assertThat(registrations("closed")).isEqualTo(1.0);
+    }
+
+    @Test
+    public void registerOrWaitlistShouldNotWaitlistPersonsTwice() {
+        final Event fullEvent = Events.fullEvent();
+        when(eventRepository.findOneByHeldOnAndName(fullEvent.getHeldOn(), fullEvent.getName()))
+            .thenReturn(Optional.of(fullEvent));
+        when(eventRepository.isWaitlisted(fullEvent, "test@test.com")).thenReturn(true);
+
+        final EventService eventService = new EventService(this.eventRepository, this.meterRegistry);
+
+        assertThatThrownBy(() -> eventService.registerOrWaitlist(fullEvent, new Person("test@test.com", "test")))
+            .isInstanceOf(IllegalArgumentException.class);
+        verify(eventRepository, never()).addToWaitlist(any(Event.class), any(Registration.class));
+        assertThat(registrations("duplicate")).isEqualTo(1.0);
+    }
+
+    @Test
+    public void cancellationsShouldPromoteTheFirstPersonOnTheWaitlist() {
+        final Event halloween = halloween();
+        when(eventRepository.findOneForUpdateByHeldOnAndName(halloween.getHeldOn(), halloween.getName()))
+            .thenReturn(Optional.of(halloween));
+        when(eventRepository.removeRegistration(halloween, "test@test.com")).thenReturn(1);
+        when(eventRepository.addRegistrationsFromWaitlist(halloween, 1)).thenReturn(1);
+        when(eventRepository.claimSeats(halloween, 1)).thenReturn(1);
+
+        final EventService eventService = new EventService(this.eventRepository, this.meterRegistry);
+        eventService.cancelRegistration(halloween, "Test@test.com");
+
+        verify(eventRepository).releaseSeat(halloween);
+        verify(eventRepository).removeFirstFromWaitlist(halloween, 1);
+        verify(eventRepository, never()).removeFromWaitlist(any(Event.class), anyString());
+        assertThat(registrations("promoted")).isEqualTo(1.0);
+    }
+
+    @Test
+    public void cancellationsShouldRemovePersonsFromTheWaitlist() {
+        final Event halloween = halloween();
+        when(eventRepository.findOneForUpdateByHeldOnAndName(halloween.getHeldOn(), halloween.getName()))
+            .thenReturn(Optional.of(halloween));
+        when(eventRepository.removeFromWaitlist(halloween, "test@test.com")).thenReturn(1);
+
+        final EventService eventService = new EventService(this.eventRepository, this.meterRegistry);
+        eventService.cancelRegistration(halloween, "test@test.com");
+
+        verify(eventRepository, never()).releaseSeat(any(Event.class));
+        verify(eventRepository, never()).addRegistrationsFromWaitlist(any(Event.class), anyInt());
+    }
+
+    @Test
+    public void cancellationsOfUnknownRegistrationsShouldFail() {
+        final Event halloween = halloween();
+        when(eventRepository.findOneForUpdateByHeldOnAndName(halloween.getHeldOn(), halloween.getName()))
+            .thenReturn(Optional.of(halloween));
+
+        final EventService eventService = new EventService(this.eventRepository, this.meterRegistry);
+
+        assertThatThrownBy(() -> eventService.cancelRegistration(halloween, "test@test.com"))
+            .isInstanceOf(NoSuchRegistrationException.class);
+        verify(eventRepository, never()).releaseSeat(any(Event.class));
+    }
+
+    @Test
+    public void eventsBeforeCursorShouldBeReturnedInOrder() {
+        final Event first = new Event(NOVEMBER_1_ST, "first");
+        final Event second = new Event(NOVEMBER_1_ST, "second");
+        when(eventRepository.findOpenEventsBefore(eq(NOVEMBER_1_ST), eq("third"), any()))
+            .thenReturn(Arrays.asList(second, first));
+
+        final EventService eventService = new EventService(this.eventRepository, this.meterRegistry);
+
+        assertThat(eventService.getOpenEventsBefore(NOVEMBER_1_ST, "third", 2)).containsExactly(first, second);
+    }
+
+    @Test
+    public void streamedRegistrationsShouldBeConsumedAndClosed() {
+        final Event halloween = halloween();
+        final Registration registration = new Registration(new Person("test@test.com", "test"));
+        final AtomicBoolean closed = new AtomicBoolean(false);
+        when(eventRepository.streamAllRegistrations(halloween))
+            .thenReturn(Stream.of(registration).onClose(() -> closed.set(true)));
+
+        final EventService eventService = new EventService(this.eventRepository, this.meterRegistry);
+        final List<Registration> registrations = new ArrayList<>();
+        eventService.streamRegistrations(halloween, registrations::add);
+
+        assertThat(registrations).containsExactly(registration);
+        assertThat(closed).isTrue();
+    }
+
+    private double registrations(final String outcome) {
+        return this.meterRegistry.get("events.registrations").tag("outcome", outcome).counter().count();
+    }
+
     @AfterClass
     public static void resetEventClock() {
         Event.CLOCK.set(Clock.systemDefaultZone());
@@ -118,6 +118,36 @@ public class EventTestSuite extends Suite {
                     .withFailMessage("Should not be able to register to event with wrong state")
             );
         }
+
+        @Test
+        public void registeringShouldClaimASeat() {
+            final Event event = new Event(LocalDate.of(2018, 1, 2), "test", 2);
+            final Registration registration = event.register(new Person("test@test.com", "test"));
+
+            assertThat(event.getRegistrations()).containsExactly(registration);
+            assertThat(event.getNumberOfFreeSeats()).isEqualTo(1);
+        }
+
+        @Test
+        public void registeringShouldNotExceedTheNumberOfSeats() {
+            final Event event = new Event(LocalDate.of(2018, 1, 2), "test", 1);
+            event.register(new Person("a@test.com", "a"));
+
+            assertThatThrownBy(() -> event.register(new Person("b@test.com", "b")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Cannot register for a full event.");
+            assertThat(event.getRegistrations()).hasSize(1);
+            assertThat(event.isFull()).isTrue();
+        }
+
+        @Test
+        public void claimingASeatShouldCountTheRegistration() {
+            final Event event = new Event(LocalDate.of(2018, 1, 2), "test", 2);
+            event.claimSeatFor(new Person("test@test.com", "test"), registration -> false);
+
+            assertThat(event.getRegistrations()).isEmpty();
+            assertThat(event.getNumberOfFreeSeats()).isEqualTo(1);
+        }
     }
 
     @AfterClass
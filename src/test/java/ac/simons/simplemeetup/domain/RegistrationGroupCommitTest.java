@@ -0,0 +1,172 @@
+/*
+ * Copyright 2026 michael-simons.eu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.simplemeetup.domain;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Michael J. Simons, 2026-10-18
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class RegistrationGroupCommitTest {
+
+    private static final int NUMBER_OF_FOLLOWERS = 8;
+
+    private final Event event = new Event(LocalDate.now().plusDays(1), "Event 1");
+
+    @Mock
+    private EventService eventService;
+
+    @Test
+    public void singleRegistrationsShouldBeWrittenWithoutLockingTheEvent() {
+        final Person person = new Person("michael@simons.ac", "Michael");
+        when(eventService.registerOrWaitlist(event, person)).thenReturn(RegistrationOutcome.registered);
+
+        final RegistrationGroupCommit groupCommit = new RegistrationGroupCommit(eventService, 10, 0);
+
+        assertThat(groupCommit.registerOrWaitlist(event, person)).isEqualTo(RegistrationOutcome.registered);
+        verify(eventService, never()).registerAllOrWaitlist(any(Event.class), anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void concurrentRegistrationsShouldBeWrittenTogether() throws Exception {
+        final CountDownLatch leaderWriting = new CountDownLatch(1);
+        final CountDownLatch leaderMayContinue = new CountDownLatch(1);
+        final Person leaderPerson = new Person("leader@test.com", "Leader");
+        when(eventService.registerOrWaitlist(event, leaderPerson)).thenAnswer(invocation -> {
+            leaderWriting.countDown();
+            leaderMayContinue.await(10, TimeUnit.SECONDS);
+            return RegistrationOutcome.registered;
+        });
+        when(eventService.registerAllOrWaitlist(eq(event), anyList())).thenAnswer(invocation -> {
+            final List<Person> persons = invocation.getArgument(1);
+            return persons.stream()
+                .map(person -> person.getEmail().equals("leader@test.com") ? RegistrationOutcome.duplicate
+                    : RegistrationOutcome.waitlisted)
+                .collect(toList());
+        });
+
+        final RegistrationGroupCommit groupCommit = new RegistrationGroupCommit(eventService, 100, 0);
+        final ExecutorService executor = Executors.newFixedThreadPool(NUMBER_OF_FOLLOWERS + 2);
+        try {
+            final Future<RegistrationOutcome> leader = executor.submit(
+                () -> groupCommit.registerOrWaitlist(event, leaderPerson));
+            assertThat(leaderWriting.await(10, TimeUnit.SECONDS)).isTrue();
+
+            final List<Future<RegistrationOutcome>> followers = new ArrayList<>();
+            for (int i = 0; i < NUMBER_OF_FOLLOWERS; ++i) {
+                final Person person = new Person(String.format("follower%d@test.com", i), "Follower " + i);
+                followers.add(executor.submit(() -> groupCommit.registerOrWaitlist(event, person)));
+            }
+            final Future<RegistrationOutcome> duplicate = executor.submit(
+                () -> groupCommit.registerOrWaitlist(event, new Person("leader@test.com", "Leader")));
+            Thread.sleep(100);
+            leaderMayContinue.countDown();
+
+            assertThat(leader.get(10, TimeUnit.SECONDS)).isEqualTo(RegistrationOutcome.registered);
+            for (Future<RegistrationOutcome> follower : followers) {
+                assertThat(follower.get(10, TimeUnit.SECONDS)).isEqualTo(RegistrationOutcome.waitlisted);
+            }
+            assertThatThrownBy(() -> duplicate.get(10, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Already registered with email-address leader@test.com");
+        } finally {
+            executor.shutdown();
+        }
+
+        final ArgumentCaptor<List<Person>> batches = ArgumentCaptor.forClass(List.class);
+        verify(eventService).registerAllOrWaitlist(eq(event), batches.capture());
+        assertThat(batches.getValue()).hasSize(NUMBER_OF_FOLLOWERS + 1);
+    }
+
+    @Test
+    public void duplicatesShouldBeRejected() {
+        final Person person = new Person("michael@simons.ac", "Michael");
+        when(eventService.registerOrWaitlist(event, person))
+            .thenThrow(new IllegalArgumentException("Already registered with email-address michael@simons.ac"));
+
+        final RegistrationGroupCommit groupCommit = new RegistrationGroupCommit(eventService, 10, 0);
+
+        assertThatThrownBy(() -> groupCommit.registerOrWaitlist(event, person))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Already registered with email-address michael@simons.ac");
+    }
+
+    @Test
+    public void failuresShouldBePropagated() {
+        final Person person = new Person("michael@simons.ac", "Michael");
+        final IllegalStateException failure = new IllegalStateException("Cannot register for a closed event.");
+        when(eventService.registerOrWaitlist(event, person)).thenThrow(failure);
+
+        final RegistrationGroupCommit groupCommit = new RegistrationGroupCommit(eventService, 10, 0);
+
+        assertThatThrownBy(() -> groupCommit.registerOrWaitlist(event, person))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("Cannot register for a closed event.")
+            .hasCause(failure);
+    }
+
+    @Test
+    public void eachCallerShouldGetAFailureOfItsOwn() {
+        final List<RuntimeException> failures = Arrays.asList(
+            new NoSuchEventException(),
+            new IllegalArgumentException("Already registered with email-address michael@simons.ac"),
+            new IllegalStateException("Cannot register for a closed event."));
+        for (RuntimeException failure : failures) {
+            final RuntimeException first = RegistrationGroupCommit.failureFor(failure);
+            final RuntimeException second = RegistrationGroupCommit.failureFor(failure);
+
+            assertThat(first).isNotSameAs(second).isNotSameAs(failure);
+            assertThat(first).isExactlyInstanceOf(failure.getClass())
+                .hasMessage(failure.getMessage())
+                .hasCause(failure);
+            assertThat(second).isExactlyInstanceOf(failure.getClass())
+                .hasMessage(failure.getMessage())
+                .hasCause(failure);
+        }
+
+        final RuntimeException unexpected = new UnsupportedOperationException();
+        assertThat(RegistrationGroupCommit.failureFor(unexpected))
+            .isExactlyInstanceOf(IllegalStateException.class)
+            .hasMessage("Registration has not been written.")
+            .hasCause(unexpected);
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2026 michael-simons.eu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.simplemeetup.domain;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Michael J. Simons, 2026-10-18
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class RegistrationIntakeTest {
+
+    private final Event event1 = new Event(LocalDate.now().plusDays(1), "Event 1");
+
+    private final Event event2 = new Event(LocalDate.now().plusDays(2), "Event 2");
+
+    private final Person person1 = new Person("michael@simons.ac", "Michael");
+
+    private final Person person2 = new Person("someone@example.com", "Someone");
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Mock
+    private EventService eventService;
+
+    private RegistrationIntake registrationIntake;
+
+    @After
+    public void stopIntake() throws InterruptedException {
+        if (registrationIntake != null) {
+            registrationIntake.destroy();
+        }
+    }
+
+    @Test
+    public void shouldRegisterOncePerEventAndBatch() {
+        when(eventService.registerAll(event1, Arrays.asList(person1, person2)))
+            .thenReturn(Arrays.asList(RegistrationOutcome.registered, RegistrationOutcome.full));
+        when(eventService.registerAll(event2, Collections.singletonList(person1)))
+            .thenReturn(Collections.singletonList(RegistrationOutcome.duplicate));
+
+        registrationIntake = new RegistrationIntake(eventService, 10, 10, 10, this.meterRegistry);
+        final RegistrationRequest request1 = new RegistrationRequest(event1, person1);
+        final RegistrationRequest request2 = new RegistrationRequest(event2, person1);
+        final RegistrationRequest request3 = new RegistrationRequest(event1, person2);
+        registrationIntake.process(Arrays.asList(request1, request2, request3));
+
+        final InOrder inOrder = inOrder(eventService);
+        inOrder.verify(eventService).registerAll(event1, Arrays.asList(person1, person2));
+        inOrder.verify(eventService).registerAll(event2, Collections.singletonList(person1));
+        inOrder.verifyNoMoreInteractions();
+        assertThat(request1.getStatus()).isEqualTo(RegistrationRequest.Status.registered);
+        assertThat(request2.getStatus()).isEqualTo(RegistrationRequest.Status.duplicate);
+        assertThat(request3.getStatus()).isEqualTo(RegistrationRequest.Status.full);
+    }
+
+    @Test
+    public void shouldRejectRequestsForInvalidEvents() {
+        when(eventService.registerAll(eq(event1), anyList())).thenThrow(NoSuchEventException.class);
+        when(eventService.registerAll(eq(event2), anyList()))
+            .thenThrow(new IllegalStateException("Cannot register for a closed event."));
+
+        registrationIntake = new RegistrationIntake(eventService, 10, 10, 10, this.meterRegistry);
+        final RegistrationRequest request1 = new RegistrationRequest(event1, person1);
+        final RegistrationRequest request2 = new RegistrationRequest(event2, person1);
+        registrationIntake.process(Arrays.asList(request1, request2));
+
+        assertThat(request1.getStatus()).isEqualTo(RegistrationRequest.Status.rejected);
+        assertThat(request1.getMessage()).isEqualTo("No such event.");
+        assertThat(request2.getStatus()).isEqualTo(RegistrationRequest.Status.rejected);
+        assertThat(request2.getMessage()).isEqualTo("Cannot register for a closed event.");
+    }
+
+    @Test
+    public void shouldWriteBehind() throws InterruptedException {
+        when(eventService.registerAll(event1, Collections.singletonList(person1)))
+            .thenReturn(Collections.singletonList(RegistrationOutcome.registered));
+
+        registrationIntake = new RegistrationIntake(eventService, 10, 10, 10, this.meterRegistry);
+        final RegistrationRequest request = registrationIntake.submit(event1, person1);
+        assertThat(registrationIntake.getRequest(request.getId())).hasValue(request);
+
+        awaitCompletion(request);
+        assertThat(request.getStatus()).isEqualTo(RegistrationRequest.Status.registered);
+        assertThat(registrationIntake.getRequest("unknown")).isEmpty();
+    }
+
+    @Test
+    public void shouldNotAcceptMoreRequestsThanCapacity() throws InterruptedException {
+        final CountDownLatch writing = new CountDownLatch(1);
+        final CountDownLatch mayContinue = new CountDownLatch(1);
+        when(eventService.registerAll(eq(event1), anyList())).thenAnswer(invocation -> {
+            writing.countDown();
+            mayContinue.await(10, TimeUnit.SECONDS);
+            return Collections.singletonList(RegistrationOutcome.registered);
+        });
+
+        registrationIntake = new RegistrationIntake(eventService, 1, 10, 10, this.meterRegistry);
+        final RegistrationRequest request1 = registrationIntake.submit(event1, person1);
+        assertThat(writing.await(10, TimeUnit.SECONDS)).isTrue();
+        final RegistrationRequest request2 = registrationIntake.submit(event1, person2);
+        assertThatExceptionOfType(RegistrationIntakeFullException.class)
+            .isThrownBy(() -> registrationIntake.submit(event2, person1))
+            .withMessage("No more than 1 registrations can be pending.");
+        assertThat(registrationIntake.getNumberOfPendingRequests()).isEqualTo(1);
+
+        mayContinue.countDown();
+        awaitCompletion(request1);
+        awaitCompletion(request2);
+    }
+
+    @Test
+    public void shouldProcessPendingRequestsOnShutdown() throws InterruptedException {
+        when(eventService.registerAll(any(Event.class), anyList()))
+            .thenReturn(Collections.singletonList(RegistrationOutcome.registered));
+
+        registrationIntake = new RegistrationIntake(eventService, 10, 10, 10, this.meterRegistry);
+        final RegistrationRequest request = registrationIntake.submit(event1, person1);
+        registrationIntake.destroy();
+
+        assertThat(request.getStatus()).isEqualTo(RegistrationRequest.Status.registered);
+        assertThatExceptionOfType(RegistrationIntakeFullException.class)
+            .isThrownBy(() -> registrationIntake.submit(event1, person2));
+    }
+
+    @Test
+    public void shouldRejectRequestsTheWriterDoesNotGetToOnShutdown() throws InterruptedException {
+        final CountDownLatch writing = new CountDownLatch(1);
+        final CountDownLatch mayContinue = new CountDownLatch(1);
+        when(eventService.registerAll(eq(event1), anyList())).thenAnswer(invocation -> {
+            writing.countDown();
+            mayContinue.await(10, TimeUnit.SECONDS);
+            return Collections.singletonList(RegistrationOutcome.registered);
+        });
+
+        registrationIntake = new RegistrationIntake(eventService, 10, 10, 10, this.meterRegistry);
+        final RegistrationRequest request1 = registrationIntake.submit(event1, person1);
+        assertThat(writing.await(10, TimeUnit.SECONDS)).isTrue();
+        final RegistrationRequest request2 = registrationIntake.submit(event1, person2);
+        registrationIntake.destroy();
+
+        assertThat(request2.getStatus()).isEqualTo(RegistrationRequest.Status.rejected);
+        assertThat(request2.getMessage()).isEqualTo("Registration intake has been shut down.");
+        assertThat(registrationIntake.getNumberOfPendingRequests()).isZero();
+
+        mayContinue.countDown();
+        awaitCompletion(request1);
+        assertThat(request1.getStatus()).isEqualTo(RegistrationRequest.Status.registered);
+        verify(eventService).registerAll(event1, Collections.singletonList(person1));
+        verifyNoMoreInteractions(eventService);
+    }
+
+    private static void awaitCompletion(final RegistrationRequest request) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (request.getStatus() == RegistrationRequest.Status.pending && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void unexpectedErrorsShouldBeCountedAndRejectTheRequests() {
+        when(eventService.registerAll(event1, Arrays.asList(person1, person2)))
+            .thenThrow(new IllegalArgumentException("Something unexpected"));
+
+        registrationIntake = new RegistrationIntake(eventService, 10, 10, 10, this.meterRegistry);
+        final RegistrationRequest request1 = new RegistrationRequest(event1, person1);
+        final RegistrationRequest request2 = new RegistrationRequest(event1, person2);
+        registrationIntake.process(Arrays.asList(request1, request2));
+
+        assertThat(Arrays.asList(request1, request2)).allSatisfy(request -> {
+            assertThat(request.getStatus()).isEqualTo(RegistrationRequest.Status.rejected);
+            assertThat(request.getMessage()).isEqualTo("Could not register.");
+        });
+        assertThat(this.meterRegistry.get("events.registrations.failed").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    public void completedRequestsShouldNotBeRejectedAgain() {
+        when(eventService.registerAll(event1, Arrays.asList(person1, person2)))
+            .thenReturn(Arrays.asList(RegistrationOutcome.registered, RegistrationOutcome.waitlisted));
+
+        registrationIntake = new RegistrationIntake(eventService, 10, 10, 10, this.meterRegistry);
+        final RegistrationRequest request1 = new RegistrationRequest(event1, person1);
+        final RegistrationRequest request2 = new RegistrationRequest(event1, person2);
+        registrationIntake.process(Arrays.asList(request1, request2));
+
+        assertThat(request1.getStatus()).isEqualTo(RegistrationRequest.Status.registered);
+        assertThat(request1.getMessage()).isNull();
+        assertThat(request2.getStatus()).isEqualTo(RegistrationRequest.Status.rejected);
+        assertThat(this.meterRegistry.get("events.registrations.failed").counter().count()).isEqualTo(1.0);
+    }
+}